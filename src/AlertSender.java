@@ -0,0 +1,27 @@
+// File: AlertSender.java
+// package com.bharatbank.notification; // Example package structure
+
+import java.io.IOException;
+
+/**
+ * Delivers alert messages to customers, e.g. through an SMS or email gateway.
+ * Used by the NotificationDispatcher, always from its single delivery thread.
+ */
+interface AlertSender {
+
+    /**
+     * Sends one alert message.
+     * @param mobileNumber The customer's registered mobile number.
+     * @param message The text of the alert.
+     * @throws IOException if the message could not be delivered.
+     */
+    void send(long mobileNumber, String message) throws IOException;
+
+    /**
+     * Called after each batch of messages, so senders can flush buffered output.
+     * @throws IOException if buffered messages could not be delivered.
+     */
+    default void flush() throws IOException {
+        // Nothing buffered by default
+    }
+}
@@ -1,15 +1,22 @@
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * Represents a customer's bank account.
  * It holds all account-specific information and handles core banking operations
  * like deposit, withdrawal, and statement generation.
+ *
+ * Balance-changing operations and history snapshots are synchronized on the account,
+ * so background tasks (e.g. the LedgerVerifier) always see a consistent view.
  */
 class BankAccount {
 
-    private final String accountNumber;
+    private final String ifscCode; // The branch that holds this account
+    private final String accountNumber; // Unique within the branch
     private String accountHolderName;
     private long mobileNumber; 
     private String panCardNumber;
@@ -20,11 +27,14 @@ class BankAccount {
     private final List<Transaction> transactionHistory;
 
     // Constants associated with the bank account type or bank policy
-    public static final String IFSC_CODE = "BBNK0001234"; // Bharat Bank IFSC Code
-    private static long accountNumberCounter = 100000000001L; // Simple counter for unique account numbers
+    public static final String IFSC_CODE = "BBNK0001234"; // Bharat Bank head branch IFSC Code, the default
+    private static final long FIRST_ACCOUNT_NUMBER = 100000000001L;
+    // One account number series per IFSC code, shared by every way of creating an account there
+    private static final Map<String, AtomicLong> accountNumberCounters = new ConcurrentHashMap<>();
+    private static volatile TransactionListener transactionListener; // e.g. the alert dispatcher; null if none
 
     /**
-     * Constructs a new BankAccount.
+     * Constructs a new BankAccount at the head branch (IFSC_CODE).
      * This is typically called during the account creation process.
      *
      * @param accountHolderName The name of the account holder.
@@ -37,7 +47,28 @@ class BankAccount {
      */
     public BankAccount(String accountHolderName, long mobileNumber, String panCardNumber,
                        long adharCardNumber, String address, int securityPin, double initialDeposit) {
-        this.accountNumber = "BB" + (accountNumberCounter++); // Simple unique account number
+        this(IFSC_CODE, nextAccountNumber(IFSC_CODE), accountHolderName, mobileNumber, panCardNumber,
+                adharCardNumber, address, securityPin, initialDeposit);
+    }
+
+    /**
+     * Constructs a new BankAccount at a specific branch, with a number from that branch's series
+     * (see nextAccountNumber). Used by Branch when opening accounts.
+     *
+     * @param ifscCode The IFSC code of the branch holding the account.
+     * @param accountNumber The account number assigned by the branch.
+     * @param accountHolderName The name of the account holder.
+     * @param mobileNumber The registered mobile number.
+     * @param panCardNumber The PAN card number.
+     * @param adharCardNumber The Adhar card number.
+     * @param address The residential address.
+     * @param securityPin The initial security PIN.
+     * @param initialDeposit The amount deposited at account opening.
+     */
+    BankAccount(String ifscCode, String accountNumber, String accountHolderName, long mobileNumber,
+                String panCardNumber, long adharCardNumber, String address, int securityPin, double initialDeposit) {
+        this.ifscCode = ifscCode;
+        this.accountNumber = accountNumber;
         this.accountHolderName = accountHolderName;
         this.mobileNumber = mobileNumber;
         this.panCardNumber = panCardNumber;
@@ -57,24 +88,125 @@ class BankAccount {
         }
     }
 
+    /**
+     * Recreates an existing BankAccount from stored data, without recording any new transactions.
+     * Used when loading accounts back from storage (see LedgerCodec). This has no side effects:
+     * the account number is only reserved once the account joins a branch (see Branch.addAccount).
+     *
+     * @param ifscCode The IFSC code of the branch holding the account.
+     * @param accountNumber The previously assigned account number.
+     * @param accountHolderName The name of the account holder.
+     * @param mobileNumber The registered mobile number.
+     * @param panCardNumber The PAN card number.
+     * @param adharCardNumber The Adhar card number.
+     * @param address The residential address.
+     * @param securityPin The security PIN.
+     * @param balance The current balance.
+     * @param transactionHistory The recorded transactions, oldest first.
+     */
+    BankAccount(String ifscCode, String accountNumber, String accountHolderName, long mobileNumber,
+                String panCardNumber, long adharCardNumber, String address, int securityPin, double balance,
+                List<Transaction> transactionHistory) {
+        this.ifscCode = ifscCode;
+        this.accountNumber = accountNumber;
+        this.accountHolderName = accountHolderName;
+        this.mobileNumber = mobileNumber;
+        this.panCardNumber = panCardNumber;
+        this.adharCardNumber = adharCardNumber;
+        this.address = address;
+        this.securityPin = securityPin;
+        this.balance = balance;
+        this.transactionHistory = new ArrayList<>(transactionHistory);
+    }
+
+    /**
+     * Hands out the next account number in a branch's series.
+     * @param ifscCode The IFSC code of the branch.
+     * @return A number not yet used at that branch.
+     * @throws IllegalStateException if the branch has used up its series.
+     */
+    static String nextAccountNumber(String ifscCode) {
+        return "BB" + counterFor(ifscCode).getAndUpdate(next -> {
+            if (next == Long.MAX_VALUE) {
+                throw new IllegalStateException("No account numbers left at branch " + ifscCode);
+            }
+            return next + 1;
+        });
+    }
+
+    /**
+     * Moves a branch's account number series past a restored account number,
+     * so newly created accounts never collide with loaded ones.
+     * @param ifscCode The IFSC code of the branch.
+     * @param accountNumber The account number to reserve.
+     * @throws IllegalArgumentException if the number is the last one a series can hold.
+     */
+    static void reserveAccountNumber(String ifscCode, String accountNumber) {
+        if (!accountNumber.startsWith("BB")) {
+            return;
+        }
+        long number;
+        try {
+            number = Long.parseLong(accountNumber.substring(2));
+        } catch (NumberFormatException e) {
+            return; // Not one of our generated numbers, nothing to reserve
+        }
+        if (number == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Account number " + accountNumber + " is out of range");
+        }
+        counterFor(ifscCode).accumulateAndGet(number + 1, Math::max);
+    }
+
+    private static AtomicLong counterFor(String ifscCode) {
+        return accountNumberCounters.computeIfAbsent(ifscCode, k -> new AtomicLong(FIRST_ACCOUNT_NUMBER));
+    }
+
+    /**
+     * Registers a listener that is told about every transaction recorded on any account.
+     * @param listener The listener to notify, or null to stop notifying.
+     */
+    public static void setTransactionListener(TransactionListener listener) {
+        transactionListener = listener;
+    }
+
     // --- Getters for account information ---
+    public String getIfscCode() { return ifscCode; }
     public String getAccountNumber() { return accountNumber; }
     public String getAccountHolderName() { return accountHolderName; }
     public long getMobileNumber() { return mobileNumber; }
     public String getPanCardNumber() { return panCardNumber; }
     public long getAdharCardNumber() { return adharCardNumber; }
     public String getAddress() { return address; }
-    public double getBalance() { return balance; }
+    public synchronized double getBalance() { return balance; }
     public int getSecurityPin() { return securityPin; } // Be cautious exposing PIN directly
 
     /**
      * Returns a copy of the transaction history to prevent external modification.
      * @return A list of transactions.
      */
-    public List<Transaction> getTransactionHistory() {
+    public synchronized List<Transaction> getTransactionHistory() {
         return new ArrayList<>(transactionHistory); // Return a defensive copy
     }
 
+    /**
+     * Returns the number of recorded transactions without copying the history.
+     * Since the history is append-only, this also serves as a cheap change marker.
+     * @return The number of transactions recorded so far.
+     */
+    public synchronized int getTransactionCount() {
+        return transactionHistory.size();
+    }
+
+    /**
+     * Returns a copy of the transactions recorded from a given position onwards,
+     * so callers that already hold the earlier entries don't copy the whole history.
+     * @param from The index of the first transaction to return.
+     * @return The transactions from that index, oldest first; empty if there are none.
+     */
+    public synchronized List<Transaction> getTransactionsSince(int from) {
+        return new ArrayList<>(transactionHistory.subList(from, transactionHistory.size()));
+    }
+
     // --- Setters for updatable profile information ---
     public void setAccountHolderName(String accountHolderName) { this.accountHolderName = accountHolderName; }
     public void setMobileNumber(long mobileNumber) { this.mobileNumber = mobileNumber; }
@@ -92,7 +224,7 @@ class BankAccount {
      * @param type The type of transaction (usually DEPOSIT or ACCOUNT_OPENING).
      * @return true if deposit was successful, false otherwise.
      */
-    public boolean deposit(double amount, String remarks, TransactionType type) {
+    public synchronized boolean deposit(double amount, String remarks, TransactionType type) {
         if (amount <= 0) {
             System.out.println("Deposit amount must be positive.");
             return false;
@@ -111,7 +243,7 @@ class BankAccount {
      * @return true if withdrawal was successful, false otherwise.
      *         In a real system, this might throw InsufficientFundsException.
      */
-    public boolean withdraw(double amount, String remarks) {
+    public synchronized boolean withdraw(double amount, String remarks) {
         if (amount <= 0) {
             System.out.println("Withdrawal amount must be positive.");
             return false;
@@ -134,7 +266,7 @@ class BankAccount {
      * @param remarks A description for the transfer.
      * @return true if transfer was successful, false otherwise.
      */
-    public boolean transferFunds(double amount, String recipientDetails, String remarks) {
+    public synchronized boolean transferFunds(double amount, String recipientDetails, String remarks) {
         if (amount <= 0) {
             System.out.println("Transfer amount must be positive.");
             return false;
@@ -153,10 +285,15 @@ class BankAccount {
     /**
      * Adds a transaction to the history.
      * This is a private helper method to ensure all transactions are recorded consistently.
+     * The registered TransactionListener, if any, is notified of every transaction.
      */
     private void addTransaction(TransactionType type, double amount, String remarks) {
         Transaction transaction = new Transaction(type, amount, this.balance, remarks);
         this.transactionHistory.add(transaction);
+        TransactionListener listener = transactionListener;
+        if (listener != null) {
+            listener.onTransaction(this, transaction);
+        }
     }
 
     /**
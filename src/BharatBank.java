@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalTime;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
@@ -18,20 +21,72 @@ public class BharatBank {
     private static final String BANK_NAME = "Bharat Bank";
     private static final int MAX_LOGIN_ATTEMPTS = 3; // Max attempts for login
     private static final int MAX_PIN_VERIFICATION_ATTEMPTS = 3; // Max attempts for PIN during operations
-    private static final double MIN_INITIAL_DEPOSIT = 500.00; // Minimum opening balance
+    static final double MIN_INITIAL_DEPOSIT = 500.00; // Minimum opening balance
+
+    // Input formats, shared with the LoadSimulator so synthetic customers pass the same checks
+    static final Pattern PIN_PATTERN = Pattern.compile("^\\d{4}$"); // Regex for exactly 4 digits
+    static final Pattern MOBILE_PATTERN = Pattern.compile("^\\d{10}$"); // Regex for exactly 10 digits
+    // Basic PAN format: 5 letters, 4 numbers, 1 letter. Case-insensitive for input.
+    static final Pattern PAN_PATTERN = Pattern.compile("^[A-Z]{5}\\d{4}[A-Z]$", Pattern.CASE_INSENSITIVE);
+    static final Pattern ADHAR_PATTERN = Pattern.compile("^\\d{12}$"); // Regex for exactly 12 digits
+    private static final String HEAD_BRANCH_NAME = "Head Branch";
+    private static final LocalTime HEAD_BRANCH_EOD_TIME = LocalTime.of(23, 30);
+    private static final String ALERT_LOG_FILE = "bharatbank-alerts.log"; // Stands in for the SMS gateway
+    private static final String EOD_EXPORT_DIRECTORY = "bharatbank-eod"; // Daily ledger snapshots, one file per branch
+    private static final int ALERT_QUEUE_CAPACITY = 10_000;
+    private static final int ALERT_BATCH_SIZE = 100;
+    private static final long ALERT_LINGER_MILLIS = 200; // Lets quick successive transactions share one alert
 
     // --- Static Resources ---
     private static final Scanner consoleScanner = new Scanner(System.in);
+    private static final BranchNetwork branchNetwork = new BranchNetwork();
+    private static final Branch headBranch =
+            branchNetwork.addBranch(BankAccount.IFSC_CODE, HEAD_BRANCH_NAME, HEAD_BRANCH_EOD_TIME);
     private static BankAccount currentActiveAccount;
     private static boolean anAccountExists = false;
 
     public static void main(String[] args) {
+        FileAlertSender alertSender = openAlertSender();
+        NotificationDispatcher alertDispatcher = null;
+        if (alertSender != null) {
+            alertDispatcher = new NotificationDispatcher(alertSender, ALERT_QUEUE_CAPACITY,
+                    NotificationDispatcher.DropPolicy.DROP_OLDEST, ALERT_BATCH_SIZE, ALERT_LINGER_MILLIS);
+            BankAccount.setTransactionListener(alertDispatcher);
+        }
+
+        branchNetwork.scheduleEndOfDayAll(Paths.get(EOD_EXPORT_DIRECTORY)); // Each branch at its own EOD time
+
         displayWelcomeMessage();
         mainMenuLoop();
         consoleScanner.close(); // Close the scanner when the application exits
+        branchNetwork.close();
+
+        if (alertDispatcher != null) {
+            BankAccount.setTransactionListener(null);
+            alertDispatcher.close(); // Delivers any alerts still queued
+            try {
+                alertSender.close();
+            } catch (IOException e) {
+                System.out.println("Warning: could not close the alert log: " + e.getMessage());
+            }
+        }
         System.out.println("\nThank you for banking with " + BANK_NAME + ". Have a great day!");
     }
 
+    /**
+     * Opens the file that transaction alerts are written to.
+     * The application still works without alerts if the file can't be opened.
+     * @return The alert sender, or null if alerts are unavailable.
+     */
+    private static FileAlertSender openAlertSender() {
+        try {
+            return new FileAlertSender(Paths.get(ALERT_LOG_FILE));
+        } catch (IOException e) {
+            System.out.println("Warning: transaction alerts are disabled (" + e.getMessage() + ").");
+            return null;
+        }
+    }
+
     /**
      * Displays the initial welcome message.
      */
@@ -103,12 +158,13 @@ public class BharatBank {
             System.out.println("Initial deposit must be at least " + String.format("%.2f", MIN_INITIAL_DEPOSIT) + ".");
         }
 
-        currentActiveAccount = new BankAccount(name, mobile, pan, adhar, address, pin, initialDeposit);
+        currentActiveAccount = headBranch.openAccount(name, mobile, pan, adhar, address, pin, initialDeposit);
         anAccountExists = true; // Mark that an account has been created
 
         System.out.println("\nAccount created successfully for " + currentActiveAccount.getAccountHolderName() + "!");
         System.out.println("Your Account Number: " + currentActiveAccount.getAccountNumber());
-        System.out.println("IFSC Code: " + BankAccount.IFSC_CODE);
+        System.out.println("IFSC Code: " + currentActiveAccount.getIfscCode());
+        System.out.println("Transaction alerts will be sent to your registered mobile number.");
         System.out.println("Please login to access your account services.");
     }
 
@@ -243,7 +299,8 @@ public class BharatBank {
     private static void handleViewAccountDetails() {
         System.out.println("\n--- Account Details ---");
         System.out.println("Bank Name:         " + BANK_NAME);
-        System.out.println("IFSC Code:         " + BankAccount.IFSC_CODE);
+        System.out.println("Branch:            " + branchNetwork.getBranch(currentActiveAccount.getIfscCode()).getBranchName());
+        System.out.println("IFSC Code:         " + currentActiveAccount.getIfscCode());
         System.out.println("Account Holder:    " + currentActiveAccount.getAccountHolderName());
         System.out.println("Account Number:    " + currentActiveAccount.getAccountNumber());
         System.out.println("Registered Mobile: " + currentActiveAccount.getMobileNumber());
@@ -402,11 +459,10 @@ public class BharatBank {
      * @return The 4-digit PIN.
      */
     private static int readPin(String prompt) {
-        Pattern pinPattern = Pattern.compile("^\\d{4}$"); // Regex for exactly 4 digits
         while (true) {
             if (!prompt.isEmpty()) System.out.print(prompt);
             String pinStr = consoleScanner.nextLine();
-            if (pinPattern.matcher(pinStr).matches()) {
+            if (PIN_PATTERN.matcher(pinStr).matches()) {
                 try {
                     return Integer.parseInt(pinStr);
                 } catch (NumberFormatException e) {
@@ -437,11 +493,10 @@ public class BharatBank {
      * @return The validated 10-digit mobile number as long.
      */
     private static long readMobileNumber(String prompt) {
-        Pattern mobilePattern = Pattern.compile("^\\d{10}$"); // Regex for exactly 10 digits
         while (true) {
             System.out.print(prompt);
             String mobileStr = consoleScanner.nextLine();
-            if (mobilePattern.matcher(mobileStr).matches()) {
+            if (MOBILE_PATTERN.matcher(mobileStr).matches()) {
                 try {
                     return Long.parseLong(mobileStr);
                 } catch (NumberFormatException e) {
@@ -459,12 +514,10 @@ public class BharatBank {
      * @return The PAN card number as a string.
      */
     private static String readPanNumber(String prompt) {
-        // Basic PAN format: 5 letters, 4 numbers, 1 letter. Case-insensitive for input.
-        Pattern panPattern = Pattern.compile("^[A-Z]{5}\\d{4}[A-Z]$", Pattern.CASE_INSENSITIVE);
         while(true) {
             System.out.print(prompt);
             String panStr = consoleScanner.nextLine().toUpperCase().trim(); // Convert to uppercase for consistency
-            if (panPattern.matcher(panStr).matches()) {
+            if (PAN_PATTERN.matcher(panStr).matches()) {
                 return panStr;
             } else {
                 System.out.print("Invalid PAN format (e.g., ABCDE1234F). Please try again: ");
@@ -478,11 +531,10 @@ public class BharatBank {
      * @return The Adhar card number as long.
      */
     private static long readAdharNumber(String prompt) {
-        Pattern adharPattern = Pattern.compile("^\\d{12}$"); // Regex for exactly 12 digits
         while (true) {
             System.out.print(prompt);
             String adharStr = consoleScanner.nextLine().trim();
-            if (adharPattern.matcher(adharStr).matches()) {
+            if (ADHAR_PATTERN.matcher(adharStr).matches()) {
                 try {
                     return Long.parseLong(adharStr);
                 } catch (NumberFormatException e) {
@@ -0,0 +1,301 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * A single bank branch, identified by its IFSC code.
+ * Each branch owns its own ledger of accounts, its own account number series
+ * (kept by BankAccount, so accounts created without a Branch draw from it too)
+ * and its own end-of-day (EOD) schedule.
+ *
+ * Branch-level operations (EOD, export, reconciliation) run on threads that belong
+ * to this branch only, so a busy branch never holds up work at any other branch.
+ * Operations within one branch run one at a time, in the order they were requested.
+ */
+class Branch implements AutoCloseable {
+
+    // Standard IFSC format: 4 letter bank code, a zero, then a 6 character branch code
+    static final Pattern IFSC_PATTERN = Pattern.compile("^[A-Z]{4}0[A-Z0-9]{6}$");
+
+    private static final DateTimeFormatter EXPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30_000; // Long enough for a running EOD export to finish
+
+    private final String ifscCode;
+    private final String branchName;
+    private final LocalTime endOfDayTime;
+    private final Map<String, BankAccount> ledger = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService operations; // Runs this branch's EOD, export and reconciliation
+    private final ExecutorService verificationWorkers; // Parallel ledger verification for this branch only
+    private final LedgerVerifier verifier;
+    private ScheduledFuture<?> endOfDaySchedule;
+    private volatile EndOfDayReport lastEndOfDay;
+
+    /**
+     * Creates a branch with its own worker threads.
+     *
+     * @param ifscCode The branch IFSC code, e.g. "BBNK0001234".
+     * @param branchName A display name for the branch.
+     * @param endOfDayTime The local time at which this branch runs its end-of-day.
+     * @param verificationThreads Number of threads used to verify this branch's ledger.
+     * @throws IllegalArgumentException if the IFSC code is not in the standard format.
+     */
+    public Branch(String ifscCode, String branchName, LocalTime endOfDayTime, int verificationThreads) {
+        if (ifscCode == null || !IFSC_PATTERN.matcher(ifscCode).matches()) {
+            throw new IllegalArgumentException("Invalid IFSC code: " + ifscCode);
+        }
+        this.ifscCode = ifscCode;
+        this.branchName = branchName;
+        this.endOfDayTime = endOfDayTime;
+        int threads = Math.max(1, verificationThreads);
+        this.operations = Executors.newSingleThreadScheduledExecutor(
+                runnable -> newDaemonThread(runnable, ifscCode + "-operations"));
+        this.verificationWorkers = Executors.newFixedThreadPool(threads,
+                runnable -> newDaemonThread(runnable, ifscCode + "-verifier"));
+        this.verifier = new LedgerVerifier(verificationWorkers, threads);
+    }
+
+    private static Thread newDaemonThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // --- Getters for branch information ---
+    public String getIfscCode() { return ifscCode; }
+    public String getBranchName() { return branchName; }
+    public LocalTime getEndOfDayTime() { return endOfDayTime; }
+    public int getAccountCount() { return ledger.size(); }
+    public EndOfDayReport getLastEndOfDay() { return lastEndOfDay; } // null until the first EOD has run
+
+    // --- Ledger ---
+
+    /**
+     * Opens a new account at this branch, numbered from this branch's own series.
+     * If an account restored concurrently already holds the drawn number, the next number is used.
+     *
+     * @param accountHolderName The name of the account holder.
+     * @param mobileNumber The registered mobile number.
+     * @param panCardNumber The PAN card number.
+     * @param adharCardNumber The Adhar card number.
+     * @param address The residential address.
+     * @param securityPin The initial security PIN.
+     * @param initialDeposit The amount deposited at account opening.
+     * @return The new account.
+     */
+    public BankAccount openAccount(String accountHolderName, long mobileNumber, String panCardNumber,
+                                   long adharCardNumber, String address, int securityPin, double initialDeposit) {
+        BankAccount[] opened = new BankAccount[1];
+        while (opened[0] == null) {
+            // The account is only created once its number is known to be free, so no opening alert goes out twice
+            ledger.computeIfAbsent(BankAccount.nextAccountNumber(ifscCode),
+                    accountNumber -> opened[0] = new BankAccount(ifscCode, accountNumber, accountHolderName,
+                            mobileNumber, panCardNumber, adharCardNumber, address, securityPin, initialDeposit));
+        }
+        return opened[0];
+    }
+
+    /**
+     * Adds an existing account, e.g. one loaded with LedgerCodec, to this branch's ledger.
+     * The branch's account number series is moved past the account's number.
+     *
+     * @param account The account to add.
+     * @throws IllegalArgumentException if the account belongs to another branch or its number is taken or invalid.
+     */
+    public void addAccount(BankAccount account) {
+        if (!ifscCode.equals(account.getIfscCode())) {
+            throw new IllegalArgumentException("Account " + account.getAccountNumber()
+                    + " belongs to branch " + account.getIfscCode() + ", not " + ifscCode);
+        }
+        // Reserve first, so openAccount stops handing out this number before the account is visible
+        BankAccount.reserveAccountNumber(ifscCode, account.getAccountNumber());
+        if (ledger.putIfAbsent(account.getAccountNumber(), account) != null) {
+            throw new IllegalArgumentException("Account number " + account.getAccountNumber()
+                    + " already exists at branch " + ifscCode);
+        }
+    }
+
+    /**
+     * Looks up an account held at this branch.
+     * @param accountNumber The account number.
+     * @return The account, or null if this branch has no such account.
+     */
+    public BankAccount getAccount(String accountNumber) {
+        return ledger.get(accountNumber);
+    }
+
+    /**
+     * Returns a snapshot of all accounts held at this branch.
+     * @return The accounts, in no particular order.
+     */
+    public Collection<BankAccount> getAccounts() {
+        return new ArrayList<>(ledger.values());
+    }
+
+    // --- Branch-level operations (run on this branch's own threads) ---
+
+    /**
+     * Verifies the accounts that changed since the last reconciliation.
+     * @return A future for the verification report.
+     */
+    public Future<LedgerVerifier.Report> reconcile() {
+        return operations.submit(() -> verifier.verifyChanged(getAccounts()));
+    }
+
+    /**
+     * Writes every account at this branch to a file in LedgerCodec format.
+     * @param file The file to write.
+     * @return A future for the number of accounts written.
+     */
+    public Future<Integer> export(Path file) {
+        return operations.submit(() -> writeExport(file));
+    }
+
+    /**
+     * Runs end-of-day now: reconciles the ledger and, if an export directory is given,
+     * writes a dated snapshot of the ledger to it.
+     * @param exportDirectory Where to write the EOD snapshot, or null to skip the export.
+     * @return A future for the end-of-day report.
+     */
+    public Future<EndOfDayReport> runEndOfDay(Path exportDirectory) {
+        return operations.submit(() -> endOfDay(exportDirectory));
+    }
+
+    /**
+     * Schedules end-of-day to run every day at this branch's EOD time.
+     * Calling this again replaces the previous schedule.
+     * @param exportDirectory Where to write the daily snapshots, or null to skip exports.
+     */
+    public synchronized void scheduleEndOfDay(Path exportDirectory) {
+        if (endOfDaySchedule != null) {
+            endOfDaySchedule.cancel(false);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(endOfDayTime);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        endOfDaySchedule = operations.scheduleAtFixedRate(() -> {
+            try {
+                endOfDay(exportDirectory);
+            } catch (Exception e) {
+                // A failed EOD must not cancel the following days; the failure is kept in the report
+                lastEndOfDay = new EndOfDayReport(ifscCode, LocalDate.now(), getAccountCount(), 0, null, null, e);
+            }
+        }, Duration.between(now, next).toMillis(), TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the branch's worker threads. Operations already running or queued are given
+     * a bounded time to finish, so an export in progress isn't cut off when the process exits.
+     */
+    @Override
+    public void close() {
+        operations.shutdown(); // Also cancels the EOD schedule
+        try {
+            operations.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            verificationWorkers.shutdown(); // Only after operations, which may still be using them
+        }
+    }
+
+    private EndOfDayReport endOfDay(Path exportDirectory) throws IOException {
+        LocalDate businessDate = LocalDate.now();
+        Collection<BankAccount> accounts = getAccounts();
+        LedgerVerifier.Report verification = verifier.verifyChanged(accounts);
+        Path exportFile = null;
+        if (exportDirectory != null) {
+            Files.createDirectories(exportDirectory);
+            exportFile = exportDirectory.resolve(ifscCode + "-" + businessDate.format(EXPORT_DATE_FORMAT) + ".bin");
+            writeExport(exportFile);
+        }
+        EndOfDayReport report = new EndOfDayReport(ifscCode, businessDate, accounts.size(),
+                verification.getTotalBalances(), verification, exportFile, null);
+        lastEndOfDay = report;
+        return report;
+    }
+
+    /**
+     * Writes the export to a temporary file next to the target and then renames it into place,
+     * so the target is either absent or complete, even if the process stops mid-export.
+     */
+    private int writeExport(Path file) throws IOException {
+        Collection<BankAccount> accounts = getAccounts();
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName() + ".", ".tmp");
+        try {
+            int written;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                written = LedgerCodec.writeAccounts(accounts, out);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return written;
+        } finally {
+            Files.deleteIfExists(temporary); // Only still there if the export failed
+        }
+    }
+
+    /**
+     * Summary of one end-of-day run at a branch.
+     */
+    static final class EndOfDayReport {
+        private final String ifscCode;
+        private final LocalDate businessDate;
+        private final int accountCount;
+        private final double totalBalance;
+        private final LedgerVerifier.Report verification; // null if the EOD failed
+        private final Path exportFile; // null if no export was written
+        private final Exception failure; // null if the EOD completed
+
+        EndOfDayReport(String ifscCode, LocalDate businessDate, int accountCount, double totalBalance,
+                       LedgerVerifier.Report verification, Path exportFile, Exception failure) {
+            this.ifscCode = ifscCode;
+            this.businessDate = businessDate;
+            this.accountCount = accountCount;
+            this.totalBalance = totalBalance;
+            this.verification = verification;
+            this.exportFile = exportFile;
+            this.failure = failure;
+        }
+
+        public String getIfscCode() { return ifscCode; }
+        public LocalDate getBusinessDate() { return businessDate; }
+        public int getAccountCount() { return accountCount; }
+        public double getTotalBalance() { return totalBalance; }
+        public LedgerVerifier.Report getVerification() { return verification; }
+        public Path getExportFile() { return exportFile; }
+        public Exception getFailure() { return failure; }
+
+        @Override
+        public String toString() {
+            if (failure != null) {
+                return String.format("EOD %s %s: FAILED (%s)", ifscCode, businessDate, failure);
+            }
+            return String.format("EOD %s %s: %d accounts, total balance %.2f INR, %s%s",
+                    ifscCode, businessDate, accountCount, totalBalance,
+                    verification.isClean() ? "ledger verified" : verification.getDiscrepancies().size() + " discrepancies",
+                    exportFile != null ? ", exported to " + exportFile : "");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * All branches of the bank running in one process.
+ * Accounts are routed by IFSC code plus account number, since account numbers
+ * are only unique within a branch.
+ *
+ * Network-wide operations are started on every branch at once; each branch then
+ * runs its part on its own threads, independently of the others.
+ */
+class BranchNetwork implements AutoCloseable {
+
+    private static final int DEFAULT_VERIFICATION_THREADS = 2;
+
+    private final Map<String, Branch> branches = new ConcurrentHashMap<>();
+
+    /**
+     * Opens a new branch.
+     *
+     * @param ifscCode The branch IFSC code.
+     * @param branchName A display name for the branch.
+     * @param endOfDayTime The local time at which the branch runs its end-of-day.
+     * @return The new branch.
+     * @throws IllegalArgumentException if the IFSC code is invalid or already in use.
+     */
+    public Branch addBranch(String ifscCode, String branchName, LocalTime endOfDayTime) {
+        Branch branch = new Branch(ifscCode, branchName, endOfDayTime, DEFAULT_VERIFICATION_THREADS);
+        if (branches.putIfAbsent(ifscCode, branch) != null) {
+            branch.close();
+            throw new IllegalArgumentException("A branch with IFSC code " + ifscCode + " already exists.");
+        }
+        return branch;
+    }
+
+    /**
+     * Looks up a branch.
+     * @param ifscCode The branch IFSC code.
+     * @return The branch, or null if there is no such branch.
+     */
+    public Branch getBranch(String ifscCode) {
+        return ifscCode == null ? null : branches.get(ifscCode.toUpperCase());
+    }
+
+    /**
+     * Returns a snapshot of all branches.
+     * @return The branches, in no particular order.
+     */
+    public Collection<Branch> getBranches() {
+        return new ArrayList<>(branches.values());
+    }
+
+    /**
+     * Routes to an account by IFSC code and account number.
+     * @param ifscCode The IFSC code of the branch holding the account.
+     * @param accountNumber The account number within that branch.
+     * @return The account, or null if either the branch or the account doesn't exist.
+     */
+    public BankAccount findAccount(String ifscCode, String accountNumber) {
+        Branch branch = getBranch(ifscCode);
+        return branch == null ? null : branch.getAccount(accountNumber);
+    }
+
+    /**
+     * Starts reconciliation at every branch at once.
+     * @return The pending report of each branch, keyed by IFSC code.
+     */
+    public Map<String, Future<LedgerVerifier.Report>> reconcileAll() {
+        Map<String, Future<LedgerVerifier.Report>> results = new LinkedHashMap<>();
+        for (Branch branch : getBranches()) {
+            results.put(branch.getIfscCode(), branch.reconcile());
+        }
+        return results;
+    }
+
+    /**
+     * Starts end-of-day at every branch at once.
+     * @param exportDirectory Where branches write their EOD snapshots, or null to skip exports.
+     * @return The pending report of each branch, keyed by IFSC code.
+     */
+    public Map<String, Future<Branch.EndOfDayReport>> runEndOfDayAll(Path exportDirectory) {
+        Map<String, Future<Branch.EndOfDayReport>> results = new LinkedHashMap<>();
+        for (Branch branch : getBranches()) {
+            results.put(branch.getIfscCode(), branch.runEndOfDay(exportDirectory));
+        }
+        return results;
+    }
+
+    /**
+     * Puts every branch on its own daily end-of-day schedule.
+     * @param exportDirectory Where branches write their EOD snapshots, or null to skip exports.
+     */
+    public void scheduleEndOfDayAll(Path exportDirectory) {
+        for (Branch branch : getBranches()) {
+            branch.scheduleEndOfDay(exportDirectory);
+        }
+    }
+
+    /**
+     * Stops the worker threads of every branch.
+     */
+    @Override
+    public void close() {
+        for (Branch branch : getBranches()) {
+            branch.close();
+        }
+    }
+}
@@ -0,0 +1,431 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Compares LedgerCodec with Java built-in serialization and JSON on the same set of accounts.
+ * Reports encoded size and encode/decode throughput for each format.
+ *
+ * Usage: java CodecBenchmark [accounts] [transactionsPerAccount] [rounds]
+ * Defaults: 1000 accounts, 200 transactions each, 10 measured rounds.
+ */
+public class CodecBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final String[] SAMPLE_REMARKS = {"Self Deposit", "ATM Withdrawal", "Salary", "Rent", "Groceries"};
+
+    /**
+     * A way of turning a list of accounts into bytes and back.
+     */
+    private interface Format {
+        String name();
+        byte[] encode(List<BankAccount> accounts) throws IOException;
+        List<BankAccount> decode(byte[] bytes) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int transactionsPerAccount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        List<BankAccount> accounts = buildAccounts(accountCount, transactionsPerAccount);
+        System.out.printf("Benchmarking %d accounts x %d transactions, %d rounds (+%d warm-up)%n",
+                accountCount, transactionsPerAccount, rounds, WARMUP_ROUNDS);
+        System.out.printf("%-20s | %12s | %10s | %14s | %14s%n",
+                "Format", "Total bytes", "Bytes/tx", "Encode (ktx/s)", "Decode (ktx/s)");
+        System.out.println("-----------------------------------------------------------------------------------");
+
+        Format[] formats = {new BinaryFormat(), new JavaSerializationFormat(), new JsonFormat()};
+        for (Format format : formats) {
+            byte[] bytes = format.encode(accounts);
+            checkRoundTrip(format, accounts, format.decode(bytes)); // A lossy format would look faster than it is
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                format.decode(format.encode(accounts));
+            }
+            long encodeNanos = 0;
+            long decodeNanos = 0;
+            for (int i = 0; i < rounds; i++) {
+                long start = System.nanoTime();
+                bytes = format.encode(accounts);
+                encodeNanos += System.nanoTime() - start;
+                start = System.nanoTime();
+                format.decode(bytes);
+                decodeNanos += System.nanoTime() - start;
+            }
+
+            // Throughput is per transaction rather than per byte, since each format produces a different size
+            double kiloTransactions = (double) accountCount * transactionsPerAccount * rounds / 1000;
+            System.out.printf("%-20s | %12d | %10.1f | %14.1f | %14.1f%n",
+                    format.name(), bytes.length, (double) bytes.length / ((long) accountCount * transactionsPerAccount),
+                    kiloTransactions / (encodeNanos / 1e9), kiloTransactions / (decodeNanos / 1e9));
+        }
+    }
+
+    /**
+     * Checks that every account, and every transaction in its history, came back exactly as it went in.
+     * @throws IllegalStateException naming the first field that differs.
+     */
+    private static void checkRoundTrip(Format format, List<BankAccount> expected, List<BankAccount> actual) {
+        if (actual.size() != expected.size()) {
+            throw new IllegalStateException(format.name() + " round-trip: expected " + expected.size()
+                    + " accounts, got " + actual.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            BankAccount want = expected.get(i);
+            BankAccount got = actual.get(i);
+            String where = format.name() + " round-trip, account " + want.getIfscCode() + "/" + want.getAccountNumber();
+            checkField(where, "IFSC code", want.getIfscCode(), got.getIfscCode());
+            checkField(where, "account number", want.getAccountNumber(), got.getAccountNumber());
+            checkField(where, "holder name", want.getAccountHolderName(), got.getAccountHolderName());
+            checkField(where, "mobile number", want.getMobileNumber(), got.getMobileNumber());
+            checkField(where, "PAN card number", want.getPanCardNumber(), got.getPanCardNumber());
+            checkField(where, "Adhar card number", want.getAdharCardNumber(), got.getAdharCardNumber());
+            checkField(where, "address", want.getAddress(), got.getAddress());
+            checkField(where, "security PIN", want.getSecurityPin(), got.getSecurityPin());
+            checkField(where, "balance", want.getBalance(), got.getBalance());
+
+            List<Transaction> wantHistory = want.getTransactionHistory();
+            List<Transaction> gotHistory = got.getTransactionHistory();
+            checkField(where, "transaction count", wantHistory.size(), gotHistory.size());
+            for (int t = 0; t < wantHistory.size(); t++) {
+                Transaction wantTransaction = wantHistory.get(t);
+                Transaction gotTransaction = gotHistory.get(t);
+                String transactionWhere = where + ", transaction #" + t;
+                checkField(transactionWhere, "timestamp", wantTransaction.getTimestamp(), gotTransaction.getTimestamp());
+                checkField(transactionWhere, "type", wantTransaction.getType(), gotTransaction.getType());
+                checkField(transactionWhere, "amount", wantTransaction.getAmount(), gotTransaction.getAmount());
+                checkField(transactionWhere, "balance after", wantTransaction.getBalanceAfterTransaction(),
+                        gotTransaction.getBalanceAfterTransaction());
+                checkField(transactionWhere, "remarks", wantTransaction.getRemarks(), gotTransaction.getRemarks());
+            }
+        }
+    }
+
+    private static void checkField(String where, String field, Object expected, Object actual) {
+        // Boxed doubles compare by exact bit pattern, so any rounding counts as a mismatch
+        if (!Objects.equals(expected, actual)) {
+            throw new IllegalStateException(where + ": " + field + " was " + expected + ", decoded as " + actual);
+        }
+    }
+
+    /**
+     * Builds a deterministic set of accounts with a realistic mix of transactions.
+     */
+    private static List<BankAccount> buildAccounts(int accountCount, int transactionsPerAccount) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // BankAccount reports every posting
+        try {
+            Random random = new Random(42);
+            List<BankAccount> accounts = new ArrayList<>(accountCount);
+            for (int i = 0; i < accountCount; i++) {
+                BankAccount account = new BankAccount("Customer " + i, 9000000000L + i, "ABCDE1234F",
+                        100000000000L + i, "Address " + i, 1000 + i % 9000, 500 + random.nextInt(50_000));
+                for (int t = 1; t < transactionsPerAccount; t++) {
+                    double amount = 1 + random.nextInt(5_000);
+                    String remark = SAMPLE_REMARKS[random.nextInt(SAMPLE_REMARKS.length)];
+                    if (random.nextBoolean() || !account.withdraw(amount, remark)) {
+                        account.deposit(amount, remark, TransactionType.DEPOSIT);
+                    }
+                }
+                accounts.add(account);
+            }
+            return accounts;
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    // --- LedgerCodec ---
+
+    private static final class BinaryFormat implements Format {
+        private int capacity = 1 << 16; // Remembered between runs, like a reused I/O buffer
+
+        public String name() { return "LedgerCodec"; }
+
+        public byte[] encode(List<BankAccount> accounts) {
+            while (true) {
+                ByteBuffer buffer = ByteBuffer.allocate(capacity);
+                try {
+                    for (BankAccount account : accounts) {
+                        LedgerCodec.encodeAccount(account, buffer);
+                    }
+                    byte[] bytes = new byte[buffer.position()];
+                    buffer.flip();
+                    buffer.get(bytes);
+                    return bytes;
+                } catch (BufferOverflowException e) {
+                    capacity *= 2;
+                }
+            }
+        }
+
+        public List<BankAccount> decode(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            List<BankAccount> accounts = new ArrayList<>();
+            while (buffer.hasRemaining()) {
+                accounts.add(LedgerCodec.decodeAccount(buffer));
+            }
+            return accounts;
+        }
+    }
+
+    // --- Java built-in serialization ---
+
+    /**
+     * Serializable mirror of BankAccount, since the model classes are deliberately not Serializable.
+     */
+    private static final class AccountRecord implements Serializable {
+        private static final long serialVersionUID = 1L;
+        String ifscCode;
+        String accountNumber;
+        String holderName;
+        long mobileNumber;
+        String panCardNumber;
+        long adharCardNumber;
+        String address;
+        int securityPin;
+        double balance;
+        ArrayList<TransactionRecord> history;
+    }
+
+    private static final class TransactionRecord implements Serializable {
+        private static final long serialVersionUID = 1L;
+        LocalDateTime timestamp;
+        TransactionType type;
+        double amount;
+        double balanceAfterTransaction;
+        String remarks;
+    }
+
+    private static final class JavaSerializationFormat implements Format {
+        public String name() { return "Java serialization"; }
+
+        public byte[] encode(List<BankAccount> accounts) throws IOException {
+            ArrayList<AccountRecord> records = new ArrayList<>(accounts.size());
+            for (BankAccount account : accounts) {
+                AccountRecord record = new AccountRecord();
+                record.ifscCode = account.getIfscCode();
+                record.accountNumber = account.getAccountNumber();
+                record.holderName = account.getAccountHolderName();
+                record.mobileNumber = account.getMobileNumber();
+                record.panCardNumber = account.getPanCardNumber();
+                record.adharCardNumber = account.getAdharCardNumber();
+                record.address = account.getAddress();
+                record.securityPin = account.getSecurityPin();
+                record.balance = account.getBalance();
+                record.history = new ArrayList<>();
+                for (Transaction tx : account.getTransactionHistory()) {
+                    TransactionRecord txRecord = new TransactionRecord();
+                    txRecord.timestamp = tx.getTimestamp();
+                    txRecord.type = tx.getType();
+                    txRecord.amount = tx.getAmount();
+                    txRecord.balanceAfterTransaction = tx.getBalanceAfterTransaction();
+                    txRecord.remarks = tx.getRemarks();
+                    record.history.add(txRecord);
+                }
+                records.add(record);
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(records);
+            }
+            return bytes.toByteArray();
+        }
+
+        @SuppressWarnings("unchecked")
+        public List<BankAccount> decode(byte[] bytes) throws IOException {
+            List<AccountRecord> records;
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                records = (List<AccountRecord>) in.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+            List<BankAccount> accounts = new ArrayList<>(records.size());
+            for (AccountRecord record : records) {
+                List<Transaction> history = new ArrayList<>(record.history.size());
+                for (TransactionRecord tx : record.history) {
+                    history.add(new Transaction(tx.timestamp, tx.type, tx.amount, tx.balanceAfterTransaction, tx.remarks));
+                }
+                accounts.add(new BankAccount(record.ifscCode, record.accountNumber, record.holderName,
+                        record.mobileNumber, record.panCardNumber, record.adharCardNumber, record.address, record.securityPin,
+                        record.balance, history));
+            }
+            return accounts;
+        }
+    }
+
+    // --- JSON ---
+
+    /**
+     * Plain JSON with a minimal hand-written writer and parser, standing in for a JSON library.
+     */
+    private static final class JsonFormat implements Format {
+        public String name() { return "JSON"; }
+
+        public byte[] encode(List<BankAccount> accounts) {
+            StringBuilder json = new StringBuilder();
+            json.append('[');
+            for (int a = 0; a < accounts.size(); a++) {
+                BankAccount account = accounts.get(a);
+                if (a > 0) json.append(',');
+                json.append("{\"ifscCode\":");
+                appendString(json, account.getIfscCode());
+                json.append(",\"accountNumber\":");
+                appendString(json, account.getAccountNumber());
+                json.append(",\"holderName\":");
+                appendString(json, account.getAccountHolderName());
+                json.append(",\"mobileNumber\":").append(account.getMobileNumber());
+                json.append(",\"panCardNumber\":");
+                appendString(json, account.getPanCardNumber());
+                json.append(",\"adharCardNumber\":").append(account.getAdharCardNumber());
+                json.append(",\"address\":");
+                appendString(json, account.getAddress());
+                json.append(",\"securityPin\":").append(account.getSecurityPin());
+                json.append(",\"balance\":").append(account.getBalance());
+                json.append(",\"history\":[");
+                List<Transaction> history = account.getTransactionHistory();
+                for (int t = 0; t < history.size(); t++) {
+                    Transaction tx = history.get(t);
+                    if (t > 0) json.append(',');
+                    json.append("{\"timestamp\":");
+                    appendString(json, tx.getTimestamp().toString());
+                    json.append(",\"type\":");
+                    appendString(json, tx.getType().name());
+                    json.append(",\"amount\":").append(tx.getAmount());
+                    json.append(",\"balanceAfterTransaction\":").append(tx.getBalanceAfterTransaction());
+                    json.append(",\"remarks\":");
+                    appendString(json, tx.getRemarks());
+                    json.append('}');
+                }
+                json.append("]}");
+            }
+            json.append(']');
+            return json.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @SuppressWarnings("unchecked")
+        public List<BankAccount> decode(byte[] bytes) {
+            List<Object> records = (List<Object>) new JsonParser(new String(bytes, StandardCharsets.UTF_8)).parseValue();
+            List<BankAccount> accounts = new ArrayList<>(records.size());
+            for (Object item : records) {
+                Map<String, Object> record = (Map<String, Object>) item;
+                List<Object> rawHistory = (List<Object>) record.get("history");
+                List<Transaction> history = new ArrayList<>(rawHistory.size());
+                for (Object rawTx : rawHistory) {
+                    Map<String, Object> tx = (Map<String, Object>) rawTx;
+                    history.add(new Transaction(LocalDateTime.parse((String) tx.get("timestamp")),
+                            TransactionType.valueOf((String) tx.get("type")),
+                            Double.parseDouble((String) tx.get("amount")),
+                            Double.parseDouble((String) tx.get("balanceAfterTransaction")),
+                            (String) tx.get("remarks")));
+                }
+                accounts.add(new BankAccount((String) record.get("ifscCode"), (String) record.get("accountNumber"),
+                        (String) record.get("holderName"),
+                        Long.parseLong((String) record.get("mobileNumber")), (String) record.get("panCardNumber"),
+                        Long.parseLong((String) record.get("adharCardNumber")), (String) record.get("address"),
+                        Integer.parseInt((String) record.get("securityPin")),
+                        Double.parseDouble((String) record.get("balance")), history));
+            }
+            return accounts;
+        }
+
+        private static void appendString(StringBuilder json, String value) {
+            json.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+            json.append('"');
+        }
+    }
+
+    /**
+     * Parses JSON into Maps, Lists and Strings (numbers are left as their text).
+     */
+    private static final class JsonParser {
+        private final String text;
+        private int pos;
+
+        JsonParser(String text) {
+            this.text = text;
+        }
+
+        Object parseValue() {
+            char c = text.charAt(pos);
+            if (c == '{') {
+                Map<String, Object> map = new LinkedHashMap<>();
+                pos++;
+                while (text.charAt(pos) != '}') {
+                    String key = parseString();
+                    pos++; // ':'
+                    map.put(key, parseValue());
+                    if (text.charAt(pos) == ',') pos++;
+                }
+                pos++;
+                return map;
+            }
+            if (c == '[') {
+                List<Object> list = new ArrayList<>();
+                pos++;
+                while (text.charAt(pos) != ']') {
+                    list.add(parseValue());
+                    if (text.charAt(pos) == ',') pos++;
+                }
+                pos++;
+                return list;
+            }
+            if (c == '"') {
+                return parseString();
+            }
+            int start = pos;
+            while (pos < text.length() && ",}]".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            return text.substring(start, pos);
+        }
+
+        private String parseString() {
+            StringBuilder sb = new StringBuilder();
+            pos++; // Opening quote
+            while (true) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c == '\\') {
+                    char escaped = text.charAt(pos++);
+                    if (escaped == 'u') {
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    } else {
+                        sb.append(escaped);
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+// File: FileAlertSender.java
+// package com.bharatbank.notification; // Example package structure
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * AlertSender that appends each message as a line to a local file,
+ * standing in for a real SMS/email gateway.
+ */
+class FileAlertSender implements AlertSender, Closeable {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BufferedWriter writer;
+
+    /**
+     * Opens (or creates) the alert file for appending.
+     * @param file The file to write alerts to.
+     * @throws IOException if the file cannot be opened.
+     */
+    public FileAlertSender(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void send(long mobileNumber, String message) throws IOException {
+        writer.write(LocalDateTime.now().format(DATE_TIME_FORMATTER) + " | To: " + mobileNumber + " | " + message);
+        writer.newLine();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush(); // Once per batch rather than once per message
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
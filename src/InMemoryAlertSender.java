@@ -0,0 +1,27 @@
+// File: InMemoryAlertSender.java
+// package com.bharatbank.notification; // Example package structure
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AlertSender that keeps every message in memory instead of delivering it.
+ * Useful for testing and for simulations.
+ */
+class InMemoryAlertSender implements AlertSender {
+
+    private final List<String> messages = new ArrayList<>();
+
+    @Override
+    public synchronized void send(long mobileNumber, String message) {
+        messages.add(mobileNumber + ": " + message);
+    }
+
+    /**
+     * Returns a copy of all messages sent so far, each prefixed with the mobile number.
+     * @return The sent messages, oldest first.
+     */
+    public synchronized List<String> getMessages() {
+        return new ArrayList<>(messages);
+    }
+}
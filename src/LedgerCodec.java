@@ -0,0 +1,425 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compact, versioned binary format for BankAccount and Transaction.
+ * Reads and writes directly to/from a ByteBuffer, so the same bytes can be used
+ * for persistence, snapshots or sending over the network.
+ *
+ * Every record starts with a format version byte and a varint body length.
+ * Readers skip any bytes left in the body after the fields they know about,
+ * so newer versions can append fields without breaking older readers.
+ * For that reason a version may only ever add fields at the end of a record;
+ * records from any version are readable, newer ones just lose the fields this version doesn't know.
+ *
+ * Inside a record:
+ * - Integers are unsigned or zig-zag varints (small values take one or two bytes).
+ * - Amounts are whole paise when the value has no more than two decimals,
+ *   otherwise the raw double is kept so no value is ever rounded.
+ * - Transaction types are stored as their stable TransactionType codes, not enum ordinals.
+ * - Timestamps are stored as the difference in seconds from the previous transaction.
+ * - Remarks are stored once per account in a dictionary and referenced by index.
+ */
+final class LedgerCodec {
+
+    static final byte FORMAT_VERSION = 2; // 2: account records end with the branch IFSC code
+
+    private static final int LENGTH_PREFIX_BYTES = 5; // Body length is always written as a padded 5-byte varint
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final int ESTIMATED_TRANSACTION_BYTES = 16; // Typical encoded size of one history entry
+    private static final long MAX_EXACT_PAISE = 1L << 52; // Larger amounts can't round-trip through paise exactly
+    private static final long MIN_EPOCH_SECOND = LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_EPOCH_SECOND = LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_SECOND_DELTA = MAX_EPOCH_SECOND - MIN_EPOCH_SECOND; // Larger could overflow the running total
+    private static final int MAX_NANO = 999_999_999;
+
+    private LedgerCodec() {
+        // Utility class, not meant to be instantiated
+    }
+
+    // --- BankAccount ---
+
+    /**
+     * Writes an account and its full transaction history at the buffer's position.
+     * @param account The account to encode.
+     * @param buffer The buffer to write to.
+     * @throws BufferOverflowException if the buffer doesn't have enough room.
+     */
+    public static void encodeAccount(BankAccount account, ByteBuffer buffer) {
+        String ifscCode = account.getIfscCode();
+        String accountNumber;
+        String holderName;
+        long mobileNumber;
+        String address;
+        int securityPin;
+        double balance;
+        List<Transaction> history;
+        synchronized (account) { // Take one consistent snapshot of the account
+            accountNumber = account.getAccountNumber();
+            holderName = account.getAccountHolderName();
+            mobileNumber = account.getMobileNumber();
+            address = account.getAddress();
+            securityPin = account.getSecurityPin();
+            balance = account.getBalance();
+            history = account.getTransactionHistory();
+        }
+
+        int bodyStart = beginRecord(buffer);
+        writeString(buffer, accountNumber);
+        writeString(buffer, holderName);
+        writeVarLong(buffer, mobileNumber);
+        writeString(buffer, account.getPanCardNumber());
+        writeVarLong(buffer, account.getAdharCardNumber());
+        writeString(buffer, address);
+        writeVarLong(buffer, securityPin);
+        writeAmount(buffer, balance);
+
+        // Remarks dictionary: each distinct remark is written once
+        Map<String, Integer> remarkIds = new HashMap<>();
+        List<String> remarks = new ArrayList<>();
+        for (Transaction tx : history) {
+            if (remarkIds.putIfAbsent(tx.getRemarks(), remarks.size()) == null) {
+                remarks.add(tx.getRemarks());
+            }
+        }
+        writeVarLong(buffer, remarks.size());
+        for (String remark : remarks) {
+            writeString(buffer, remark);
+        }
+
+        writeVarLong(buffer, history.size());
+        long previousSecond = 0;
+        for (Transaction tx : history) {
+            long second = tx.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+            buffer.put((byte) tx.getType().getCode());
+            writeAmount(buffer, tx.getAmount());
+            writeAmount(buffer, tx.getBalanceAfterTransaction());
+            writeVarLong(buffer, zigZag(second - previousSecond));
+            writeVarLong(buffer, tx.getTimestamp().getNano());
+            writeVarLong(buffer, remarkIds.get(tx.getRemarks()));
+            previousSecond = second;
+        }
+        writeString(buffer, ifscCode); // Added in version 2, so it goes after all version 1 fields
+        endRecord(buffer, bodyStart);
+    }
+
+    /**
+     * Reads an account written by encodeAccount from the buffer's position.
+     * On return the buffer is positioned just after the record.
+     * @param buffer The buffer to read from.
+     * @return The restored account.
+     * @throws IllegalArgumentException if the record is corrupt or truncated.
+     */
+    public static BankAccount decodeAccount(ByteBuffer buffer) {
+        return readRecord(buffer, LedgerCodec::readAccountFields);
+    }
+
+    private static BankAccount readAccountFields(ByteBuffer buffer) {
+        String accountNumber = readString(buffer);
+        String holderName = readString(buffer);
+        long mobileNumber = readVarLong(buffer);
+        String panCardNumber = readString(buffer);
+        long adharCardNumber = readVarLong(buffer);
+        String address = readString(buffer);
+        int securityPin = (int) readVarLong(buffer);
+        double balance = readAmount(buffer);
+
+        String[] remarks = new String[readEntryCount(buffer)];
+        for (int i = 0; i < remarks.length; i++) {
+            remarks[i] = readString(buffer);
+        }
+
+        int count = readEntryCount(buffer);
+        List<Transaction> history = new ArrayList<>(count);
+        long second = 0;
+        for (int i = 0; i < count; i++) {
+            TransactionType type = readType(buffer);
+            double amount = readAmount(buffer);
+            double balanceAfter = readAmount(buffer);
+            long delta = unZigZag(readVarLong(buffer));
+            if (delta < -MAX_SECOND_DELTA || delta > MAX_SECOND_DELTA) {
+                throw new IllegalArgumentException("Corrupt record: timestamp delta " + delta + " out of range");
+            }
+            second += delta;
+            LocalDateTime timestamp = readTimestamp(buffer, second);
+            int remarkId = (int) readVarLong(buffer);
+            if (remarkId < 0 || remarkId >= remarks.length) {
+                throw new IllegalArgumentException("Corrupt record: unknown remark index " + remarkId);
+            }
+            history.add(new Transaction(timestamp, type, amount, balanceAfter, remarks[remarkId]));
+        }
+        // Version 1 records predate branches; those accounts all belong to the head branch
+        String ifscCode = buffer.hasRemaining() ? readString(buffer) : BankAccount.IFSC_CODE;
+        return new BankAccount(ifscCode, accountNumber, holderName, mobileNumber, panCardNumber, adharCardNumber,
+                address, securityPin, balance, history);
+    }
+
+    /**
+     * Encodes an account into a right-sized byte array.
+     * @param account The account to encode.
+     * @return The encoded bytes.
+     */
+    public static byte[] toBytes(BankAccount account) {
+        ByteBuffer buffer = encodeGrowing(account, ByteBuffer.allocate(estimateSize(account)));
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes accounts one after another to a stream, e.g. for a ledger export.
+     * A single buffer is reused for all of them, and only grown when an account doesn't fit,
+     * so large ledgers aren't re-encoded or copied account by account.
+     * @param accounts The accounts to write.
+     * @param out The stream to write to. It is not closed.
+     * @return The number of accounts written.
+     * @throws IOException if writing to the stream fails.
+     */
+    public static int writeAccounts(Collection<BankAccount> accounts, OutputStream out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        int written = 0;
+        for (BankAccount account : accounts) {
+            buffer.clear();
+            buffer = encodeGrowing(account, buffer);
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Encodes an account at the start of the buffer, replacing the buffer with a larger one until it fits.
+     * @return The buffer that holds the record, positioned just after it.
+     */
+    private static ByteBuffer encodeGrowing(BankAccount account, ByteBuffer buffer) {
+        while (true) {
+            try {
+                encodeAccount(account, buffer);
+                return buffer;
+            } catch (BufferOverflowException e) {
+                // Histories vary a lot in size; sizing up front would mean encoding twice for every account
+                buffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, estimateSize(account)));
+            }
+        }
+    }
+
+    private static int estimateSize(BankAccount account) {
+        long estimate = INITIAL_BUFFER_SIZE + (long) account.getTransactionCount() * ESTIMATED_TRANSACTION_BYTES;
+        return (int) Math.min(estimate, Integer.MAX_VALUE - 8);
+    }
+
+    // --- Transaction ---
+
+    /**
+     * Writes a single, standalone transaction at the buffer's position.
+     * Unlike inside an account record, the timestamp and remarks are written in full.
+     * @param transaction The transaction to encode.
+     * @param buffer The buffer to write to.
+     * @throws BufferOverflowException if the buffer doesn't have enough room.
+     */
+    public static void encodeTransaction(Transaction transaction, ByteBuffer buffer) {
+        int bodyStart = beginRecord(buffer);
+        buffer.put((byte) transaction.getType().getCode());
+        writeAmount(buffer, transaction.getAmount());
+        writeAmount(buffer, transaction.getBalanceAfterTransaction());
+        writeVarLong(buffer, zigZag(transaction.getTimestamp().toEpochSecond(ZoneOffset.UTC)));
+        writeVarLong(buffer, transaction.getTimestamp().getNano());
+        writeString(buffer, transaction.getRemarks());
+        endRecord(buffer, bodyStart);
+    }
+
+    /**
+     * Reads a transaction written by encodeTransaction from the buffer's position.
+     * On return the buffer is positioned just after the record.
+     * @param buffer The buffer to read from.
+     * @return The restored transaction.
+     * @throws IllegalArgumentException if the record is corrupt or truncated.
+     */
+    public static Transaction decodeTransaction(ByteBuffer buffer) {
+        return readRecord(buffer, LedgerCodec::readTransactionFields);
+    }
+
+    private static Transaction readTransactionFields(ByteBuffer buffer) {
+        TransactionType type = readType(buffer);
+        double amount = readAmount(buffer);
+        double balanceAfter = readAmount(buffer);
+        LocalDateTime timestamp = readTimestamp(buffer, unZigZag(readVarLong(buffer)));
+        String remarks = readString(buffer);
+        return new Transaction(timestamp, type, amount, balanceAfter, remarks);
+    }
+
+    // --- Record framing ---
+
+    private static int beginRecord(ByteBuffer buffer) {
+        buffer.put(FORMAT_VERSION);
+        if (buffer.remaining() < LENGTH_PREFIX_BYTES) {
+            throw new BufferOverflowException();
+        }
+        buffer.position(buffer.position() + LENGTH_PREFIX_BYTES); // Filled in by endRecord
+        return buffer.position();
+    }
+
+    private static void endRecord(ByteBuffer buffer, int bodyStart) {
+        int length = buffer.position() - bodyStart;
+        int at = bodyStart - LENGTH_PREFIX_BYTES;
+        for (int i = 0; i < LENGTH_PREFIX_BYTES - 1; i++) {
+            buffer.put(at + i, (byte) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        buffer.put(at + LENGTH_PREFIX_BYTES - 1, (byte) length);
+    }
+
+    /**
+     * Reads one record: checks the header, lets the field reader see only this record's body,
+     * then skips any fields appended by newer versions.
+     */
+    private static <T> T readRecord(ByteBuffer buffer, Function<ByteBuffer, T> fieldReader) {
+        int limit = buffer.limit();
+        try {
+            int version = buffer.get();
+            if (version < 1) {
+                throw new IllegalArgumentException("Corrupt record: unknown format version " + version);
+            }
+            int length = readCount(buffer);
+            if (length > buffer.remaining()) {
+                throw new IllegalArgumentException("Corrupt record: length " + length + " exceeds available data");
+            }
+            int bodyEnd = buffer.position() + length;
+            buffer.limit(bodyEnd); // A field that runs past the body now underflows instead of reading the next record
+            T value = fieldReader.apply(buffer);
+            buffer.limit(limit);
+            buffer.position(bodyEnd);
+            return value;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Corrupt record: data ends in the middle of a field", e);
+        } finally {
+            buffer.limit(limit);
+        }
+    }
+
+    // --- Field encodings ---
+
+    private static void writeAmount(ByteBuffer buffer, double amount) {
+        long paise = Math.round(amount * 100);
+        if (Math.abs(paise) < MAX_EXACT_PAISE && paise / 100.0 == amount) {
+            writeVarLong(buffer, zigZag(paise) << 1); // Low bit 0: whole paise follow
+        } else {
+            writeVarLong(buffer, 1); // Low bit 1: raw double follows
+            buffer.putDouble(amount);
+        }
+    }
+
+    private static double readAmount(ByteBuffer buffer) {
+        long tagged = readVarLong(buffer);
+        if ((tagged & 1) != 0) {
+            return buffer.getDouble();
+        }
+        return unZigZag(tagged >>> 1) / 100.0;
+    }
+
+    private static TransactionType readType(ByteBuffer buffer) {
+        int code = buffer.get() & 0xFF;
+        TransactionType type = TransactionType.fromCode(code);
+        if (type == null) {
+            throw new IllegalArgumentException("Corrupt record: unknown transaction type " + code);
+        }
+        return type;
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readCount(buffer);
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt record: string length " + length + " exceeds available data");
+        }
+        if (buffer.hasArray()) { // Decode straight from the backing array, avoiding a copy
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the number of entries in a list and checks it against the data left, before anything is allocated.
+     * Every entry takes at least one byte, so a larger count can only come from a corrupt or hostile record.
+     */
+    private static int readEntryCount(ByteBuffer buffer) {
+        int count = readCount(buffer);
+        if (count > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt record: entry count " + count + " exceeds available data");
+        }
+        return count;
+    }
+
+    /**
+     * Reads the nanosecond part of a timestamp and combines it with its epoch second.
+     */
+    private static LocalDateTime readTimestamp(ByteBuffer buffer, long second) {
+        long nano = readVarLong(buffer);
+        if (second < MIN_EPOCH_SECOND || second > MAX_EPOCH_SECOND) {
+            throw new IllegalArgumentException("Corrupt record: timestamp second " + second + " out of range");
+        }
+        if (nano < 0 || nano > MAX_NANO) {
+            throw new IllegalArgumentException("Corrupt record: timestamp nanosecond " + nano + " out of range");
+        }
+        return LocalDateTime.ofEpochSecond(second, (int) nano, ZoneOffset.UTC);
+    }
+
+    private static int readCount(ByteBuffer buffer) {
+        long count = readVarLong(buffer);
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Corrupt record: invalid count " + count);
+        }
+        return (int) count;
+    }
+
+    private static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Corrupt record: varint is too long");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
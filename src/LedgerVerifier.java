@@ -0,0 +1,335 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Verifies the integrity of account ledgers.
+ * For every account it walks the transaction history and checks that each
+ * stored balanceAfterTransaction equals the previous balance plus or minus the
+ * transaction amount, and that the last entry matches the live balance.
+ * Across all accounts it checks that total credits minus total debits equals
+ * the sum of balances. Those bank-wide totals are kept in whole paise, so they stay
+ * exact no matter how many accounts and transactions are added up.
+ *
+ * Accounts are verified in parallel on the supplied executor. The verifier
+ * remembers how far each account was verified, so verifyChanged() only walks
+ * the transactions added since the previous run.
+ */
+class LedgerVerifier {
+
+    private static final double TOLERANCE = 0.005; // Half a paisa, to absorb floating point drift
+    private static final int TASKS_PER_THREAD = 4; // Oversplit a little so uneven accounts balance out
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a verifier that runs on the common fork-join pool.
+     */
+    public LedgerVerifier() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Creates a verifier that runs on a caller-supplied executor.
+     * The executor is not shut down by the verifier.
+     *
+     * @param executor The executor used to verify accounts.
+     * @param parallelism The number of threads the executor is expected to use.
+     */
+    public LedgerVerifier(ExecutorService executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Verifies every account from its first transaction, discarding any previous progress.
+     * @param accounts The accounts to verify.
+     * @return The verification report.
+     */
+    public Report verifyAll(Collection<BankAccount> accounts) {
+        checkpoints.clear();
+        return verifyChanged(accounts);
+    }
+
+    /**
+     * Verifies only what changed since the previous run.
+     * Accounts whose transaction count and balance are unchanged are skipped, and
+     * changed accounts are verified from where the last run stopped. Accounts with
+     * an unresolved discrepancy are re-verified in full every run, so they keep
+     * being reported until fixed.
+     *
+     * @param accounts The accounts to verify.
+     * @return The verification report.
+     */
+    public Report verifyChanged(Collection<BankAccount> accounts) {
+        long startNanos = System.nanoTime();
+        List<BankAccount> snapshot = new ArrayList<>(accounts);
+
+        Set<String> present = new HashSet<>();
+        for (BankAccount account : snapshot) {
+            present.add(accountKey(account));
+        }
+        checkpoints.keySet().retainAll(present); // Forget accounts that are no longer in the ledger
+
+        int chunkSize = Math.max(1, (snapshot.size() + parallelism * TASKS_PER_THREAD - 1)
+                / (parallelism * TASKS_PER_THREAD));
+        List<Callable<List<AccountResult>>> tasks = new ArrayList<>();
+        for (int from = 0; from < snapshot.size(); from += chunkSize) {
+            List<BankAccount> chunk = snapshot.subList(from, Math.min(from + chunkSize, snapshot.size()));
+            tasks.add(() -> {
+                List<AccountResult> results = new ArrayList<>(chunk.size());
+                for (BankAccount account : chunk) {
+                    results.add(verifyAccount(account));
+                }
+                return results;
+            });
+        }
+
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        int accountsWalked = 0;
+        long transactionsWalked = 0;
+        long totalCredits = 0; // All bank-wide totals are in paise
+        long totalDebits = 0;
+        long totalBalances = 0;
+        long roundingAllowance = 0;
+        try {
+            for (Future<List<AccountResult>> future : executor.invokeAll(tasks)) {
+                for (AccountResult result : future.get()) {
+                    discrepancies.addAll(result.discrepancies);
+                    if (result.transactionsWalked > 0) accountsWalked++;
+                    transactionsWalked += result.transactionsWalked;
+                    totalCredits += result.checkpoint.creditPaise;
+                    totalDebits += result.checkpoint.debitPaise;
+                    totalBalances += toPaise(result.checkpoint.balance);
+                    roundingAllowance += result.checkpoint.subPaiseAmounts;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ledger verification was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ledger verification failed.", e.getCause());
+        }
+
+        // Amounts with fractions of a paisa can each shift the rounded totals by up to one paisa
+        if (Math.abs((totalCredits - totalDebits) - totalBalances) > roundingAllowance) {
+            discrepancies.add(new Discrepancy(null, null, -1, (totalCredits - totalDebits) / 100.0, totalBalances / 100.0,
+                    "Total credits minus debits does not match the sum of account balances"));
+        }
+
+        return new Report(snapshot.size(), accountsWalked, transactionsWalked, totalCredits / 100.0,
+                totalDebits / 100.0, totalBalances / 100.0, discrepancies, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Verifies a single account, continuing from its checkpoint when one exists.
+     */
+    private AccountResult verifyAccount(BankAccount account) {
+        String ifscCode = account.getIfscCode();
+        String accountNumber = account.getAccountNumber();
+        String key = accountKey(account);
+        Checkpoint start = checkpoints.get(key);
+
+        int transactionCount;
+        double liveBalance;
+        List<Transaction> newEntries;
+        synchronized (account) { // Take count, balance and new entries together so they describe the same moment
+            transactionCount = account.getTransactionCount();
+            liveBalance = account.getBalance();
+            if (start == null || start.transactionCount > transactionCount) {
+                start = Checkpoint.EMPTY;
+            } else if (start.transactionCount == transactionCount && start.balance == liveBalance) {
+                return new AccountResult(start, 0, Collections.emptyList()); // Nothing changed since last run
+            }
+            newEntries = account.getTransactionsSince(start.transactionCount); // Only what the checkpoint hasn't seen
+        }
+
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        double balance = start.balance;
+        long creditPaise = start.creditPaise;
+        long debitPaise = start.debitPaise;
+        int subPaiseAmounts = start.subPaiseAmounts;
+        for (int i = start.transactionCount; i < transactionCount; i++) {
+            Transaction tx = newEntries.get(i - start.transactionCount);
+            if (tx.getAmount() < 0) {
+                discrepancies.add(new Discrepancy(ifscCode, accountNumber, i, 0, tx.getAmount(),
+                        "Negative amount on " + tx.getType()));
+            }
+            long amountPaise = toPaise(tx.getAmount());
+            if (amountPaise / 100.0 != tx.getAmount()) {
+                subPaiseAmounts++;
+            }
+            if (tx.getType().isCredit()) {
+                balance += tx.getAmount();
+                creditPaise += amountPaise;
+            } else {
+                balance -= tx.getAmount();
+                debitPaise += amountPaise;
+            }
+            if (Math.abs(balance - tx.getBalanceAfterTransaction()) > TOLERANCE) {
+                discrepancies.add(new Discrepancy(ifscCode, accountNumber, i, balance, tx.getBalanceAfterTransaction(),
+                        "Running balance does not match balance after transaction"));
+                balance = tx.getBalanceAfterTransaction(); // Re-anchor so one bad entry is reported once
+            }
+        }
+        if (Math.abs(balance - liveBalance) > TOLERANCE) {
+            discrepancies.add(new Discrepancy(ifscCode, accountNumber, transactionCount, balance, liveBalance,
+                    "Ledger balance does not match account balance"));
+        }
+
+        // Totals are taken from the chain; the live balance is what the global check compares against
+        Checkpoint end = new Checkpoint(transactionCount, liveBalance, creditPaise, debitPaise, subPaiseAmounts);
+        if (discrepancies.isEmpty()) {
+            checkpoints.put(key, end);
+        } else {
+            checkpoints.remove(key);
+        }
+        return new AccountResult(end, transactionCount - start.transactionCount, discrepancies);
+    }
+
+    /**
+     * Account numbers are only unique within a branch, so checkpoints are keyed by IFSC code too.
+     */
+    private static String accountKey(BankAccount account) {
+        return account.getIfscCode() + "/" + account.getAccountNumber();
+    }
+
+    private static long toPaise(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * How far an account has been verified, and the totals up to that point.
+     */
+    private static final class Checkpoint {
+        static final Checkpoint EMPTY = new Checkpoint(0, 0, 0, 0, 0);
+
+        final int transactionCount;
+        final double balance;
+        final long creditPaise;
+        final long debitPaise;
+        final int subPaiseAmounts; // Amounts that don't convert to whole paise exactly
+
+        Checkpoint(int transactionCount, double balance, long creditPaise, long debitPaise, int subPaiseAmounts) {
+            this.transactionCount = transactionCount;
+            this.balance = balance;
+            this.creditPaise = creditPaise;
+            this.debitPaise = debitPaise;
+            this.subPaiseAmounts = subPaiseAmounts;
+        }
+    }
+
+    private static final class AccountResult {
+        final Checkpoint checkpoint;
+        final int transactionsWalked;
+        final List<Discrepancy> discrepancies;
+
+        AccountResult(Checkpoint checkpoint, int transactionsWalked, List<Discrepancy> discrepancies) {
+            this.checkpoint = checkpoint;
+            this.transactionsWalked = transactionsWalked;
+            this.discrepancies = discrepancies;
+        }
+    }
+
+    /**
+     * A single integrity problem found during verification.
+     */
+    static final class Discrepancy {
+        private final String ifscCode; // null for bank-wide discrepancies
+        private final String accountNumber; // null for bank-wide discrepancies
+        private final int transactionIndex; // -1 when not tied to a transaction
+        private final double expected;
+        private final double actual;
+        private final String message;
+
+        Discrepancy(String ifscCode, String accountNumber, int transactionIndex, double expected, double actual,
+                    String message) {
+            this.ifscCode = ifscCode;
+            this.accountNumber = accountNumber;
+            this.transactionIndex = transactionIndex;
+            this.expected = expected;
+            this.actual = actual;
+            this.message = message;
+        }
+
+        public String getIfscCode() { return ifscCode; }
+        public String getAccountNumber() { return accountNumber; }
+        public int getTransactionIndex() { return transactionIndex; }
+        public double getExpected() { return expected; }
+        public double getActual() { return actual; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            String where = accountNumber == null ? "Bank-wide" : "Account " + ifscCode + "/" + accountNumber
+                    + (transactionIndex >= 0 ? " #" + transactionIndex : "");
+            return String.format("%s: %s (expected %.2f, found %.2f)", where, message, expected, actual);
+        }
+    }
+
+    /**
+     * The outcome of one verification run.
+     */
+    static final class Report {
+        private final int accountsChecked;
+        private final int accountsWalked;
+        private final long transactionsWalked;
+        private final double totalCredits;
+        private final double totalDebits;
+        private final double totalBalances;
+        private final List<Discrepancy> discrepancies;
+        private final long elapsedNanos;
+
+        Report(int accountsChecked, int accountsWalked, long transactionsWalked, double totalCredits,
+               double totalDebits, double totalBalances, List<Discrepancy> discrepancies, long elapsedNanos) {
+            this.accountsChecked = accountsChecked;
+            this.accountsWalked = accountsWalked;
+            this.transactionsWalked = transactionsWalked;
+            this.totalCredits = totalCredits;
+            this.totalDebits = totalDebits;
+            this.totalBalances = totalBalances;
+            this.discrepancies = Collections.unmodifiableList(discrepancies);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getAccountsChecked() { return accountsChecked; }
+        public int getAccountsWalked() { return accountsWalked; }
+        public long getTransactionsWalked() { return transactionsWalked; }
+        public double getTotalCredits() { return totalCredits; }
+        public double getTotalDebits() { return totalDebits; }
+        public double getTotalBalances() { return totalBalances; }
+        public List<Discrepancy> getDiscrepancies() { return discrepancies; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public boolean isClean() { return discrepancies.isEmpty(); }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Ledger verification: %d accounts (%d walked, %d transactions) in %.1f ms%n",
+                    accountsChecked, accountsWalked, transactionsWalked, elapsedNanos / 1_000_000.0));
+            sb.append(String.format("Credits: %.2f | Debits: %.2f | Balances: %.2f INR%n",
+                    totalCredits, totalDebits, totalBalances));
+            if (discrepancies.isEmpty()) {
+                sb.append("No discrepancies found.");
+            } else {
+                sb.append(discrepancies.size()).append(" discrepancies found:");
+                for (Discrepancy d : discrepancies) {
+                    sb.append(System.lineSeparator()).append("  - ").append(d);
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
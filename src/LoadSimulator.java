@@ -0,0 +1,480 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Load-test and simulation harness that drives Bharat Bank with synthetic customers.
+ *
+ * Creates N customers whose mobile, PAN and Adhar numbers pass the same validators the
+ * console uses, spreads them over a few branches, then replays a mix of deposits,
+ * withdrawals, fund transfers and statement views from several threads, optionally at
+ * a fixed target rate. At the end it reports throughput, latency percentiles per
+ * operation, GC activity and heap usage, and reconciles every branch ledger.
+ *
+ * Runs are seedable: the same seed always creates the same customers and each thread
+ * issues the same sequence of operations. With a single thread the whole run is repeatable;
+ * with more threads only the interleaving between threads varies.
+ *
+ * Usage: java LoadSimulator [--customers=1000] [--branches=4] [--operations=200000]
+ *        [--warmup=50000] [--threads=4] [--rate=0] [--seed=42] [--mix=35,30,20,15]
+ * --rate is the target operations per second across all threads (0 = as fast as possible).
+ * --mix is the percentage of deposits, withdrawals, transfers and statement views.
+ */
+public class LoadSimulator {
+
+    /**
+     * The kinds of customer operation the simulator replays.
+     */
+    private enum Operation {
+        DEPOSIT("Deposit"),
+        WITHDRAWAL("Withdrawal"),
+        FUND_TRANSFER("Fund Transfer"),
+        VIEW_STATEMENT("View Statement");
+
+        private final String description;
+
+        Operation(String description) {
+            this.description = description;
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final String[] FIRST_NAMES = {"Aarav", "Priya", "Rohan", "Ananya", "Vikram", "Kavya",
+            "Arjun", "Meera", "Sanjay", "Divya", "Rahul", "Lakshmi"};
+    private static final String[] LAST_NAMES = {"Sharma", "Reddy", "Iyer", "Patel", "Singh", "Nair",
+            "Gupta", "Rao", "Das", "Mehta", "Kulkarni", "Amballa"};
+    private static final String[] CITIES = {"Hyderabad", "Mumbai", "Bengaluru", "Chennai", "Delhi", "Pune"};
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int MAX_AMOUNT = 20_000; // Largest deposit, withdrawal or transfer in INR
+
+    // --- Settings ---
+    private final int customers;
+    private final int branches;
+    private final int operations;
+    private final int warmupOperations;
+    private final int threads;
+    private final double targetRate;
+    private final long seed;
+    private final int[] mix; // Cumulative percentages, indexed by Operation ordinal
+
+    private final BranchNetwork network = new BranchNetwork();
+    private final List<Customer> customerList = new ArrayList<>();
+
+    /**
+     * A synthetic customer: their account and the PIN they type for protected operations.
+     */
+    private static final class Customer {
+        final BankAccount account;
+        final int pin;
+
+        Customer(BankAccount account, int pin) {
+            this.account = account;
+            this.pin = pin;
+        }
+    }
+
+    /**
+     * Latencies measured by one worker thread, grouped by operation.
+     */
+    private static final class Samples {
+        final long[][] latencies = new long[OPERATIONS.length][];
+        final int[] counts = new int[OPERATIONS.length];
+        int failed; // Operations the bank rejected, e.g. for insufficient funds
+
+        Samples(int capacity) {
+            for (int i = 0; i < OPERATIONS.length; i++) {
+                latencies[i] = new long[capacity];
+            }
+        }
+
+        void record(Operation operation, long nanos) {
+            int i = operation.ordinal();
+            if (counts[i] == latencies[i].length) {
+                latencies[i] = Arrays.copyOf(latencies[i], Math.max(16, counts[i] * 2));
+            }
+            latencies[i][counts[i]++] = nanos;
+        }
+    }
+
+    LoadSimulator(int customers, int branches, int operations, int warmupOperations, int threads,
+                  double targetRate, long seed, int[] mixPercentages) {
+        this.customers = customers;
+        this.branches = branches;
+        this.operations = operations;
+        this.warmupOperations = warmupOperations;
+        this.threads = threads;
+        this.targetRate = targetRate;
+        this.seed = seed;
+        this.mix = new int[OPERATIONS.length];
+        int total = 0;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            total += mixPercentages[i];
+            this.mix[i] = total;
+        }
+        if (total != 100) {
+            throw new IllegalArgumentException("Operation mix must add up to 100, but adds up to " + total);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.out.println("Ignoring unrecognised argument: " + arg);
+                continue;
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        String[] mixParts = options.getOrDefault("mix", "35,30,20,15").split(",");
+        if (mixParts.length != OPERATIONS.length) {
+            throw new IllegalArgumentException("--mix needs " + OPERATIONS.length + " comma-separated percentages");
+        }
+        int[] mix = new int[OPERATIONS.length];
+        for (int i = 0; i < mix.length; i++) {
+            mix[i] = Integer.parseInt(mixParts[i].trim());
+        }
+
+        LoadSimulator simulator = new LoadSimulator(
+                Integer.parseInt(options.getOrDefault("customers", "1000")),
+                Integer.parseInt(options.getOrDefault("branches", "4")),
+                Integer.parseInt(options.getOrDefault("operations", "200000")),
+                Integer.parseInt(options.getOrDefault("warmup", "50000")),
+                Integer.parseInt(options.getOrDefault("threads", "4")),
+                Double.parseDouble(options.getOrDefault("rate", "0")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                mix);
+        simulator.run();
+    }
+
+    /**
+     * Runs the whole simulation and prints the report.
+     */
+    void run() throws Exception {
+        System.out.printf("Simulating %d customers across %d branches: %d operations (+%d warm-up) on %d threads, %s, seed %d%n",
+                customers, branches, operations, warmupOperations, threads,
+                targetRate > 0 ? String.format("target %.0f ops/s", targetRate) : "unthrottled", seed);
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // BankAccount prints every posting
+        try {
+            createCustomers();
+            if (warmupOperations > 0) {
+                runPhase(warmupOperations, seed ^ 0x5DEECE66DL); // Lets the JIT settle; results discarded
+            }
+            System.gc();
+            long gcCountBefore = totalGcCount();
+            long gcTimeBefore = totalGcTimeMillis();
+            resetHeapPeaks();
+
+            long start = System.nanoTime();
+            List<Samples> samples = runPhase(operations, seed);
+            long elapsed = System.nanoTime() - start;
+
+            long gcCount = totalGcCount() - gcCountBefore;
+            long gcTime = totalGcTimeMillis() - gcTimeBefore;
+            System.setOut(console);
+            printReport(samples, elapsed, gcCount, gcTime);
+        } finally {
+            System.setOut(console);
+            network.close();
+        }
+    }
+
+    // --- Synthetic customers ---
+
+    /**
+     * Opens the branches and one account per synthetic customer.
+     */
+    private void createCustomers() {
+        List<Branch> branchList = new ArrayList<>();
+        for (int b = 0; b < branches; b++) {
+            String ifscCode = b == 0 ? BankAccount.IFSC_CODE : String.format("BBNK%07d", 1234 + b);
+            branchList.add(network.addBranch(ifscCode, "Branch " + (b + 1), LocalTime.of(23, 30)));
+        }
+
+        Random random = new Random(seed);
+        for (int i = 0; i < customers; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            long mobile = requireValid(BharatBank.MOBILE_PATTERN, "mobile", nextMobileNumber(random));
+            String pan = nextPanNumber(random);
+            requireValid(BharatBank.PAN_PATTERN, "PAN", pan);
+            long adhar = requireValid(BharatBank.ADHAR_PATTERN, "Adhar", nextAdharNumber(random));
+            int pin = 1000 + random.nextInt(9000);
+            requireValid(BharatBank.PIN_PATTERN, "PIN", pin);
+            String address = (1 + random.nextInt(999)) + ", Main Road, " + CITIES[random.nextInt(CITIES.length)];
+            double initialDeposit = BharatBank.MIN_INITIAL_DEPOSIT + random.nextInt(100_000);
+
+            Branch branch = branchList.get(i % branchList.size());
+            BankAccount account = branch.openAccount(name, mobile, pan, adhar, address, pin, initialDeposit);
+            customerList.add(new Customer(account, pin));
+        }
+    }
+
+    private static long nextMobileNumber(Random random) {
+        return (6 + random.nextInt(4)) * 1_000_000_000L + random.nextInt(1_000_000_000); // Indian mobiles start with 6-9
+    }
+
+    private static String nextPanNumber(Random random) {
+        StringBuilder pan = new StringBuilder(10);
+        for (int i = 0; i < 3; i++) {
+            pan.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        pan.append('P'); // 4th character 'P' marks an individual's PAN
+        pan.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        pan.append(String.format("%04d", random.nextInt(10_000)));
+        pan.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        return pan.toString();
+    }
+
+    private static long nextAdharNumber(Random random) {
+        return (2 + random.nextInt(8)) * 100_000_000_000L + (long) (random.nextDouble() * 100_000_000_000L); // Adhar never starts with 0 or 1
+    }
+
+    private static <T> T requireValid(Pattern pattern, String field, T value) {
+        if (!pattern.matcher(String.valueOf(value)).matches()) {
+            throw new IllegalStateException("Generated " + field + " '" + value + "' fails the console validator");
+        }
+        return value;
+    }
+
+    // --- Workload ---
+
+    /**
+     * Runs the given number of operations spread over the worker threads.
+     * @return The samples of each thread.
+     */
+    private List<Samples> runPhase(int totalOperations, long phaseSeed) throws Exception {
+        List<Samples> results = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        Throwable[] failure = new Throwable[1];
+        long intervalNanos = targetRate > 0 ? (long) (1e9 * threads / targetRate) : 0;
+
+        for (int t = 0; t < threads; t++) {
+            int count = totalOperations / threads + (t < totalOperations % threads ? 1 : 0);
+            Samples samples = new Samples(count / OPERATIONS.length + 16);
+            Random random = new Random(phaseSeed + 31L * t);
+            results.add(samples);
+            Thread worker = new Thread(() -> {
+                try {
+                    startSignal.await();
+                    long next = System.nanoTime();
+                    for (int i = 0; i < count; i++) {
+                        if (intervalNanos > 0) {
+                            long wait = next - System.nanoTime();
+                            if (wait > 0) {
+                                LockSupport.parkNanos(wait);
+                            }
+                        }
+                        // With a target rate, latency counts from the scheduled start, so any time an
+                        // operation spent waiting behind a slow one is included (no coordinated omission)
+                        long begin = intervalNanos > 0 ? next : System.nanoTime();
+                        Operation operation = nextOperation(random);
+                        if (!perform(operation, random)) {
+                            samples.failed++;
+                        }
+                        samples.record(operation, System.nanoTime() - begin);
+                        next += intervalNanos;
+                    }
+                } catch (Throwable e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                }
+            }, "load-worker-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        startSignal.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        synchronized (failure) {
+            if (failure[0] != null) {
+                throw new IllegalStateException("A load worker failed", failure[0]);
+            }
+        }
+        return results;
+    }
+
+    private Operation nextOperation(Random random) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < mix.length; i++) {
+            if (roll < mix[i]) {
+                return OPERATIONS[i];
+            }
+        }
+        return OPERATIONS[OPERATIONS.length - 1];
+    }
+
+    /**
+     * Performs one operation the way the console would.
+     * @return true if the bank accepted the operation.
+     */
+    private boolean perform(Operation operation, Random random) {
+        Customer customer = customerList.get(random.nextInt(customerList.size()));
+        BankAccount account = customer.account;
+        double amount = 1 + random.nextInt(MAX_AMOUNT);
+        switch (operation) {
+            case DEPOSIT:
+                return account.deposit(amount, "Self Deposit", TransactionType.DEPOSIT);
+            case WITHDRAWAL:
+                return account.validatePin(customer.pin) && account.withdraw(amount, "ATM Withdrawal");
+            case FUND_TRANSFER:
+                Customer recipient = customerList.get(random.nextInt(customerList.size()));
+                if (recipient == customer || !account.validatePin(customer.pin)) {
+                    return false;
+                }
+                BankAccount to = recipient.account;
+                if (!account.transferFunds(amount, to.getIfscCode() + "/" + to.getAccountNumber()
+                        + " (" + to.getAccountHolderName() + ")", "Transfer to " + to.getAccountHolderName())) {
+                    return false;
+                }
+                return to.deposit(amount, "From: " + account.getIfscCode() + "/" + account.getAccountNumber(),
+                        TransactionType.FUND_TRANSFER_CREDIT);
+            case VIEW_STATEMENT:
+                StringBuilder statement = new StringBuilder();
+                for (Transaction tx : account.getTransactionHistory()) {
+                    statement.append(tx).append(System.lineSeparator()); // Same formatting as the console statement
+                }
+                return statement.length() > 0;
+            default:
+                throw new IllegalStateException("Unknown operation: " + operation);
+        }
+    }
+
+    // --- Reporting ---
+
+    private void printReport(List<Samples> samples, long elapsedNanos, long gcCount, long gcTimeMillis)
+            throws Exception {
+        double seconds = elapsedNanos / 1e9;
+        int failed = 0;
+        for (Samples s : samples) {
+            failed += s.failed;
+        }
+
+        System.out.println();
+        System.out.printf("Completed %d operations in %.2f s: %.0f ops/s (%d rejected by the bank)%n",
+                operations, seconds, operations / seconds, failed);
+        System.out.println("-------------------------------------------------------------------------------------------");
+        System.out.printf("| %-15s | %9s | %9s | %9s | %9s | %10s | %10s |%n",
+                "Operation", "Count", "p50 (us)", "p90 (us)", "p99 (us)", "p99.9 (us)", "Max (us)");
+        System.out.println("-------------------------------------------------------------------------------------------");
+        List<long[]> all = new ArrayList<>();
+        for (Operation operation : OPERATIONS) {
+            long[] latencies = merge(samples, operation);
+            all.add(latencies);
+            printLatencyRow(operation.description, latencies);
+        }
+        long[] overall = new long[all.stream().mapToInt(a -> a.length).sum()];
+        int offset = 0;
+        for (long[] latencies : all) {
+            System.arraycopy(latencies, 0, overall, offset, latencies.length);
+            offset += latencies.length;
+        }
+        Arrays.sort(overall);
+        printLatencyRow("All", overall);
+        System.out.println("-------------------------------------------------------------------------------------------");
+
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("GC: %d collections, %d ms total (%.1f%% of run time)%n",
+                gcCount, gcTimeMillis, 100.0 * gcTimeMillis / (elapsedNanos / 1e6));
+        System.out.printf("Heap: %.1f MB used now, %.1f MB peak during run, %.1f MB max%n",
+                (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0, peakHeapUsed() / 1048576.0,
+                runtime.maxMemory() / 1048576.0);
+
+        long transactions = 0;
+        for (Customer customer : customerList) {
+            transactions += customer.account.getTransactionCount();
+        }
+        System.out.printf("Ledger: %d transactions across %d accounts%n", transactions, customerList.size());
+        for (Map.Entry<String, Future<LedgerVerifier.Report>> entry : network.reconcileAll().entrySet()) {
+            LedgerVerifier.Report report = entry.getValue().get();
+            System.out.printf("Reconciliation %s: %s in %.1f ms%n", entry.getKey(),
+                    report.isClean() ? "clean" : report.getDiscrepancies().size() + " discrepancies",
+                    report.getElapsedNanos() / 1e6);
+        }
+    }
+
+    private static long[] merge(List<Samples> samples, Operation operation) {
+        int i = operation.ordinal();
+        int total = 0;
+        for (Samples s : samples) {
+            total += s.counts[i];
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (Samples s : samples) {
+            System.arraycopy(s.latencies[i], 0, merged, offset, s.counts[i]);
+            offset += s.counts[i];
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private static void printLatencyRow(String name, long[] sorted) {
+        if (sorted.length == 0) {
+            System.out.printf("| %-15s | %9d | %9s | %9s | %9s | %10s | %10s |%n", name, 0, "-", "-", "-", "-", "-");
+            return;
+        }
+        System.out.printf("| %-15s | %9d | %9.1f | %9.1f | %9.1f | %10.1f | %10.1f |%n", name, sorted.length,
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 99.9),
+                sorted[sorted.length - 1] / 1000.0);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0; // Nanoseconds to microseconds
+    }
+
+    // --- JVM metrics ---
+
+    private static long totalGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long totalGcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    private static void resetHeapPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeapUsed() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed(); // Sum of per-pool peaks, so an upper bound
+            }
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,245 @@
+// File: NotificationDispatcher.java
+// package com.bharatbank.notification; // Example package structure
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends transaction alerts to customers without slowing down postings.
+ *
+ * Registered as the BankAccount TransactionListener, it only places a small alert
+ * on a bounded queue; it never blocks and never calls the sender on the posting thread.
+ * A single background thread takes alerts off the queue in batches, coalesces
+ * alerts for the same account into one message, and hands them to the AlertSender.
+ * When the queue is full, alerts are dropped according to the DropPolicy.
+ */
+class NotificationDispatcher implements TransactionListener, AutoCloseable {
+
+    /**
+     * What to do with a new alert when the queue is full.
+     */
+    enum DropPolicy {
+        DROP_NEWEST, // Keep the queued alerts, discard the new one
+        DROP_OLDEST  // Discard the oldest queued alert to make room for the new one
+    }
+
+    private static final String BANK_NAME = "Bharat Bank";
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000;
+    private static final long IDLE_POLL_MILLIS = 100; // How often an idle delivery thread checks for close()
+
+    private final BlockingQueue<Alert> queue;
+    private final AlertSender sender;
+    private final DropPolicy dropPolicy;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Counters for monitoring
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+
+    /**
+     * Creates and starts a dispatcher.
+     *
+     * @param sender Where alert messages are delivered.
+     * @param queueCapacity Maximum number of alerts waiting for delivery.
+     * @param dropPolicy What to do when the queue is full.
+     * @param maxBatchSize Maximum number of alerts taken off the queue at once.
+     * @param lingerMillis How long to wait for more alerts before sending a partial batch.
+     */
+    public NotificationDispatcher(AlertSender sender, int queueCapacity, DropPolicy dropPolicy,
+                                  int maxBatchSize, long lingerMillis) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sender = sender;
+        this.dropPolicy = dropPolicy;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerMillis = Math.max(0, lingerMillis);
+        this.worker = new Thread(this::deliveryLoop, "alert-dispatcher");
+        this.worker.setDaemon(true); // Never keep the application alive just for alerts
+        this.worker.start();
+    }
+
+    /**
+     * Queues an alert for the transaction. Never blocks.
+     */
+    @Override
+    public void onTransaction(BankAccount account, Transaction transaction) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        published.incrementAndGet();
+        Alert alert = new Alert(account.getIfscCode(), account.getAccountNumber(), account.getMobileNumber(),
+                transaction);
+        if (queue.offer(alert)) {
+            return;
+        }
+        if (dropPolicy == DropPolicy.DROP_OLDEST) {
+            // Make room by discarding the oldest alert; retry once, as other posters may race us
+            if (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+            if (queue.offer(alert)) {
+                return;
+            }
+        }
+        dropped.incrementAndGet();
+    }
+
+    // --- Monitoring ---
+    public long getPublishedCount() { return published.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public long getMessagesSentCount() { return messagesSent.get(); }
+    public long getSendFailureCount() { return sendFailures.get(); }
+    public int getQueuedCount() { return queue.size(); }
+
+    /**
+     * Stops accepting alerts, delivers whatever is still queued and stops the delivery thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        // Not interrupted: an interrupt during a send would close file or socket channels in the sender
+        try {
+            worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs on the delivery thread: takes batches off the queue and sends them until closed.
+     */
+    private void deliveryLoop() {
+        List<Alert> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running) {
+                Alert first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Alert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                deliver(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Deliver what we already have, then stop
+        }
+        // Deliver anything still queued at close()
+        do {
+            deliver(batch);
+            batch.clear();
+        } while (queue.drainTo(batch, maxBatchSize) > 0);
+    }
+
+    /**
+     * Coalesces a batch per account and sends one message for each account.
+     * Account numbers are only unique within a branch, so accounts are keyed by IFSC code too.
+     */
+    private void deliver(List<Alert> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, List<Alert>> byAccount = new LinkedHashMap<>();
+        for (Alert alert : batch) {
+            byAccount.computeIfAbsent(alert.ifscCode + "/" + alert.accountNumber, k -> new ArrayList<>()).add(alert);
+        }
+        for (List<Alert> alerts : byAccount.values()) {
+            Alert latest = alerts.get(alerts.size() - 1);
+            try {
+                sender.send(latest.mobileNumber, formatMessage(alerts));
+                messagesSent.incrementAndGet();
+            } catch (Exception e) {
+                sendFailures.incrementAndGet(); // A failing gateway must not stop the delivery thread
+            }
+        }
+        try {
+            sender.flush();
+        } catch (Exception e) {
+            sendFailures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Builds the alert text: a detailed message for one transaction, a summary for several.
+     */
+    private static String formatMessage(List<Alert> alerts) {
+        Alert latest = alerts.get(alerts.size() - 1);
+        String account = maskAccountNumber(latest.accountNumber);
+        if (alerts.size() == 1) {
+            Transaction tx = latest.transaction;
+            return String.format("%s: INR %.2f %s A/c %s on %s (%s). Avl Bal: INR %.2f",
+                    BANK_NAME, tx.getAmount(), tx.getType().isCredit() ? "credited to" : "debited from",
+                    account, tx.getTimestamp().format(DATE_TIME_FORMATTER), tx.getType().getDescription(),
+                    tx.getBalanceAfterTransaction());
+        }
+
+        int credits = 0;
+        int debits = 0;
+        double creditTotal = 0;
+        double debitTotal = 0;
+        for (Alert alert : alerts) {
+            if (alert.transaction.getType().isCredit()) {
+                credits++;
+                creditTotal += alert.transaction.getAmount();
+            } else {
+                debits++;
+                debitTotal += alert.transaction.getAmount();
+            }
+        }
+        return String.format("%s: %d transactions on A/c %s up to %s - %d credit(s) INR %.2f, %d debit(s) INR %.2f. Avl Bal: INR %.2f",
+                BANK_NAME, alerts.size(), account, latest.transaction.getTimestamp().format(DATE_TIME_FORMATTER),
+                credits, creditTotal, debits, debitTotal, latest.transaction.getBalanceAfterTransaction());
+    }
+
+    /**
+     * Shows only the last four characters of the account number, as bank alerts usually do.
+     */
+    private static String maskAccountNumber(String accountNumber) {
+        int visible = Math.min(4, accountNumber.length());
+        return "XX" + accountNumber.substring(accountNumber.length() - visible);
+    }
+
+    /**
+     * A queued alert. The mobile number is captured at posting time, since the
+     * profile can change before the alert is delivered.
+     */
+    private static final class Alert {
+        final String ifscCode;
+        final String accountNumber;
+        final long mobileNumber;
+        final Transaction transaction;
+
+        Alert(String ifscCode, String accountNumber, long mobileNumber, Transaction transaction) {
+            this.ifscCode = ifscCode;
+            this.accountNumber = accountNumber;
+            this.mobileNumber = mobileNumber;
+            this.transaction = transaction;
+        }
+    }
+}
@@ -27,7 +27,20 @@ class Transaction {
      * @param remarks A brief description or note about the transaction.
      */
     public Transaction(TransactionType type, double amount, double balanceAfterTransaction, String remarks) {
-        this.timestamp = LocalDateTime.now(); // Capture the exact moment of transaction creation
+        this(LocalDateTime.now(), type, amount, balanceAfterTransaction, remarks); // Capture the exact moment of transaction creation
+    }
+
+    /**
+     * Recreates a previously recorded Transaction with its original timestamp.
+     * Used when loading transactions back from storage (see LedgerCodec).
+     * @param timestamp The moment the transaction was originally recorded.
+     * @param type The type of the transaction.
+     * @param amount The amount involved in the transaction.
+     * @param balanceAfterTransaction The account balance after this transaction.
+     * @param remarks A brief description or note about the transaction.
+     */
+    Transaction(LocalDateTime timestamp, TransactionType type, double amount, double balanceAfterTransaction, String remarks) {
+        this.timestamp = timestamp;
         this.type = type;
         this.amount = amount;
         this.balanceAfterTransaction = balanceAfterTransaction;
@@ -0,0 +1,17 @@
+// File: TransactionListener.java
+// package com.bharatbank.model; // Example package structure
+
+/**
+ * Callback notified whenever a transaction is recorded on any BankAccount.
+ * Implementations are called on the posting thread while the account is locked,
+ * so they must return quickly and must not call back into the account.
+ */
+interface TransactionListener {
+
+    /**
+     * Called right after a transaction has been added to an account's history.
+     * @param account The account the transaction was recorded on.
+     * @param transaction The transaction that was recorded.
+     */
+    void onTransaction(BankAccount account, Transaction transaction);
+}
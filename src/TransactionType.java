@@ -4,24 +4,65 @@
 /**
  * Enum representing the different types of financial transactions.
  * Using an enum improves type safety and readability compared to using simple strings or integers.
+ *
+ * Each type has a stable numeric code that is written to storage (see LedgerCodec).
+ * Never change or reuse a code; give new types the next unused one.
  */
 enum TransactionType {
-    ACCOUNT_OPENING("Account Opening"),
-    DEPOSIT("Deposit"),
-    WITHDRAWAL("Withdrawal"),
-    FUND_TRANSFER_DEBIT("Fund Transfer (Dr)"),
-    FUND_TRANSFER_CREDIT("Fund Transfer (Cr)"); // For future if receiving transfers
+    ACCOUNT_OPENING(0, "Account Opening", true),
+    DEPOSIT(1, "Deposit", true),
+    WITHDRAWAL(2, "Withdrawal", false),
+    FUND_TRANSFER_DEBIT(3, "Fund Transfer (Dr)", false),
+    FUND_TRANSFER_CREDIT(4, "Fund Transfer (Cr)", true); // For future if receiving transfers
 
+    private static final TransactionType[] BY_CODE; // Decoding runs per transaction, so avoid values() copies
+
+    static {
+        int maxCode = 0;
+        for (TransactionType type : values()) {
+            maxCode = Math.max(maxCode, type.code);
+        }
+        BY_CODE = new TransactionType[maxCode + 1];
+        for (TransactionType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code; // Stored code, independent of declaration order
     private final String description;
+    private final boolean credit; // true if the transaction adds to the balance
 
-    TransactionType(String description) {
+    TransactionType(int code, String description, boolean credit) {
+        this.code = code;
         this.description = description;
+        this.credit = credit;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Looks up a transaction type by its stored code.
+     * @param code The code, as returned by getCode().
+     * @return The matching type, or null if no type has that code.
+     */
+    public static TransactionType fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
     }
 
     public String getDescription() {
         return description;
     }
 
+    /**
+     * Indicates whether this type of transaction increases the account balance.
+     * @return true for credits (deposits, incoming transfers), false for debits.
+     */
+    public boolean isCredit() {
+        return credit;
+    }
+
     @Override
     public String toString() {
         return description;